@@ -2,27 +2,34 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.common.State;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareitServerRequestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> shareitServerRequestFactory)
                         .build()
         );
     }
@@ -31,6 +38,10 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> create(Long userId, List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
     public ResponseEntity<Object> approve(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
@@ -59,4 +70,30 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
+
+    public ResponseEntity<Object> getAfter(Long userId, State state, String cursor, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getByOwnerAfter(Long userId, State state, String cursor, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public void export(Long userId, HttpServletResponse response) throws IOException {
+        stream("/export", userId, MediaType.APPLICATION_NDJSON_VALUE, response);
+    }
+
+    public void exportByOwner(Long userId, HttpServletResponse response) throws IOException {
+        stream("/owner/export", userId, MediaType.APPLICATION_NDJSON_VALUE, response);
+    }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -10,16 +11,24 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.exception.InvalidStatusException;
 import ru.practicum.shareit.common.State;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.util.List;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
 public class BookingGateway {
+    public static final int BATCH_SIZE = 500;
+
     private final BookingClient bookingClient;
 
     @PostMapping
@@ -28,6 +37,14 @@ public class BookingGateway {
         return bookingClient.create(userId, bookingDto);
     }
 
+    //up to BATCH_SIZE bookings in one call, each one validated as in create
+    @PostMapping("/batch")
+    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestBody @NotEmpty @Size(max = BATCH_SIZE)
+                                         List<@Valid BookingDto> bookingDtos) {
+        return bookingClient.create(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                                           @PathVariable Long bookingId,
@@ -63,6 +80,41 @@ public class BookingGateway {
         return bookingClient.getByOwner(userId, state, from, size);
     }
 
+    //keyset pagination
+    @GetMapping(params = "cursor")
+    public ResponseEntity<Object> getAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestParam(name = "state", defaultValue = "ALL") String value,
+                                           @RequestParam(name = "cursor", defaultValue = "") String cursor,
+                                           @Positive @RequestParam(name = "size", defaultValue = "10") Long size)
+            throws InvalidStatusException {
+        State state = validateState(value);
+        return bookingClient.getAfter(userId, state, cursor, size);
+    }
+
+    //keyset pagination
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<Object> getByOwnerAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam(name = "state", defaultValue = "ALL") String value,
+                                                  @RequestParam(name = "cursor", defaultValue = "") String cursor,
+                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Long size)
+            throws InvalidStatusException {
+        State state = validateState(value);
+        return bookingClient.getByOwnerAfter(userId, state, cursor, size);
+    }
+
+    //ndjson export, streamed through from the server
+    @GetMapping("/export")
+    public void export(@RequestHeader("X-Sharer-User-Id") Long userId,
+                       HttpServletResponse response) throws IOException {
+        bookingClient.export(userId, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              HttpServletResponse response) throws IOException {
+        bookingClient.exportByOwner(userId, response);
+    }
+
     private State validateState(String value) throws InvalidStatusException {
         State state = State.ALL;
         try {
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.common.State;
+
+import java.util.List;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                 ClientHttpConnector shareitServerConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareitServerConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(Long userId, BookingDto bookingDto) {
+        return post("", userId, bookingDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(Long userId, List<BookingDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approve(Long userId, Long bookingId, Boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long userId, State state, Long from, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByOwner(Long userId, State state, Long from, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        );
+        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAfter(Long userId, State state, String cursor, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByOwnerAfter(Long userId, State state, String cursor, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> export(Long userId) {
+        return stream("/export", userId, MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(Long userId) {
+        return stream("/owner/export", userId, MediaType.APPLICATION_NDJSON_VALUE);
+    }
+}
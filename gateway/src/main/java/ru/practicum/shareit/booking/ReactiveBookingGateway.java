@@ -0,0 +1,125 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.exception.InvalidStatusException;
+import ru.practicum.shareit.common.State;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBookingGateway {
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestBody @Valid BookingDto bookingDto) {
+        return bookingClient.create(userId, bookingDto);
+    }
+
+    //up to BookingGateway.BATCH_SIZE bookings in one call, each one validated as in create
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestBody @NotEmpty @Size(max = BookingGateway.BATCH_SIZE)
+                                                         List<@Valid BookingDto> bookingDtos) {
+        return bookingClient.create(userId, bookingDtos);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> approve(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @PathVariable Long bookingId,
+                                                          @RequestParam Boolean approved) {
+        return bookingClient.approve(userId, bookingId, approved);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long bookingId) {
+        return bookingClient.get(userId, bookingId);
+    }
+
+    //pagination
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam(name = "state", defaultValue = "ALL") String value,
+                                                      @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Long from,
+                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Long size)
+            throws InvalidStatusException {
+        State state = validateState(value);
+        return bookingClient.get(userId, state, from, size);
+    }
+
+    //pagination
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(name = "state", defaultValue = "ALL") String value,
+                                                             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Long from,
+                                                             @Positive @RequestParam(name = "size", defaultValue = "10") Long size)
+            throws InvalidStatusException {
+        State state = validateState(value);
+        return bookingClient.getByOwner(userId, state, from, size);
+    }
+
+    //keyset pagination
+    @GetMapping(params = "cursor")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(name = "state", defaultValue = "ALL") String value,
+                                                           @RequestParam(name = "cursor", defaultValue = "") String cursor,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Long size)
+            throws InvalidStatusException {
+        State state = validateState(value);
+        return bookingClient.getAfter(userId, state, cursor, size);
+    }
+
+    //keyset pagination
+    @GetMapping(path = "/owner", params = "cursor")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getByOwnerAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                  @RequestParam(name = "state", defaultValue = "ALL") String value,
+                                                                  @RequestParam(name = "cursor", defaultValue = "") String cursor,
+                                                                  @Positive @RequestParam(name = "size", defaultValue = "10") Long size)
+            throws InvalidStatusException {
+        State state = validateState(value);
+        return bookingClient.getByOwnerAfter(userId, state, cursor, size);
+    }
+
+    //ndjson export, streamed through from the server
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> export(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingClient.export(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingClient.exportByOwner(userId);
+    }
+
+    private State validateState(String value) throws InvalidStatusException {
+        State state = State.ALL;
+        try {
+            state = State.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStatusException("Unknown state: " + value);
+        }
+        return state;
+    }
+
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -80,6 +83,31 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    //the server body is copied into the gateway response as it arrives instead of being read into a byte[] first
+    protected void stream(String path, Long userId, String accept, HttpServletResponse response) throws IOException {
+        try {
+            rest.execute(path, HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().set(HttpHeaders.ACCEPT, accept);
+                        if (userId != null) request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                    },
+                    shareitServerResponse -> {
+                        response.setStatus(shareitServerResponse.getRawStatusCode());
+                        copyHeaders(shareitServerResponse.getHeaders(), response);
+                        StreamUtils.copy(shareitServerResponse.getBody(), response.getOutputStream());
+                        return null;
+                    });
+        } catch (HttpStatusCodeException e) {
+            response.setStatus(e.getRawStatusCode());
+            copyHeaders(e.getResponseHeaders(), response);
+            response.getOutputStream().write(e.getResponseBodyAsByteArray());
+        }
+    }
+
+    private static void copyHeaders(@Nullable HttpHeaders serverHeaders, HttpServletResponse response) {
+        passThroughHeaders(serverHeaders).forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
                                                           String path,
                                                           Long userId,
@@ -88,15 +116,18 @@ public class BaseClient {
     ) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        //the body is proxied as raw bytes, Jackson never parses what the gateway only passes along
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getRawStatusCode())
+                    .headers(passThroughHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -111,12 +142,9 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCodeValue())
+                .headers(passThroughHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -124,4 +152,17 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    //server headers go back unchanged except hop-by-hop ones, the gateway frames its own response
+    static HttpHeaders passThroughHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            headers.addAll(serverHeaders);
+        }
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        headers.remove("Keep-Alive");
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return headers;
+    }
 }
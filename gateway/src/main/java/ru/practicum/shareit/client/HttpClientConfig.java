@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(HttpClientProperties properties) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(PoolingHttpClientConnectionManager shareitServerConnectionManager,
+                                                       HttpClientProperties properties) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                .build();
+        long keepAlive = properties.getKeepAlive().toMillis();
+        return HttpClients.custom()
+                .setConnectionManager(shareitServerConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    //the http client is closed by its own bean, not by every RestTemplate using it
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient) {
+            @Override
+            public void destroy() {
+            }
+        };
+    }
+
+    //shareit.gateway.http.pool.* in /actuator/metrics
+    @Bean
+    public MeterBinder shareitServerPoolMetrics(PoolingHttpClientConnectionManager shareitServerConnectionManager) {
+        return registry -> {
+            gauge(registry, shareitServerConnectionManager, "leased", PoolStats::getLeased);
+            gauge(registry, shareitServerConnectionManager, "available", PoolStats::getAvailable);
+            gauge(registry, shareitServerConnectionManager, "pending", PoolStats::getPending);
+            gauge(registry, shareitServerConnectionManager, "max", PoolStats::getMax);
+        };
+    }
+
+    private static void gauge(MeterRegistry registry,
+                              PoolingHttpClientConnectionManager connectionManager,
+                              String name, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("shareit.gateway.http.pool." + name, connectionManager,
+                        manager -> value.applyAsDouble(manager.getTotalStats()))
+                .description("shareit-server connection pool " + name + " connections")
+                .register(registry);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+//shareit-server.http.*, one pool shared by every *Client, all of them talk to the same route
+@Getter
+@Setter
+@ConfigurationProperties("shareit-server.http")
+public class HttpClientProperties {
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    //kept alive this long when the server sends no Keep-Alive header
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
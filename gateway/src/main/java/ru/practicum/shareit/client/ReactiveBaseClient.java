@@ -0,0 +1,109 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+//reactive counterpart of BaseClient, server bodies are streamed back as raw buffers
+public class ReactiveBaseClient {
+    protected final WebClient web;
+
+    public ReactiveBaseClient(WebClient web) {
+        this.web = web;
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId,
+                                                         @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
+        return post(path, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId,
+                                                               @Nullable Map<String, Object> parameters,
+                                                               @Nullable T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, null, null, null);
+    }
+
+    //a get carrying the client's Accept, the body is passed along buffer by buffer like any other
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, String accept) {
+        return web.get()
+                .uri(path)
+                .headers(headers -> {
+                    defaultHeaders(headers, userId);
+                    headers.set(HttpHeaders.ACCEPT, accept);
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(ReactiveBaseClient::prepareGatewayResponse);
+    }
+
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method,
+                                                                          String path,
+                                                                          Long userId,
+                                                                          @Nullable Map<String, Object> parameters,
+                                                                          @Nullable T body
+    ) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                .headers(headers -> defaultHeaders(headers, userId));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        //error statuses are proxied as they are instead of being raised as WebClientResponseException
+        return requestWithBody.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(ReactiveBaseClient::prepareGatewayResponse);
+    }
+
+    private static void defaultHeaders(HttpHeaders headers, Long userId) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+    }
+
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(BaseClient.passThroughHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+//spring.main.web-application-type=reactive (the "reactive" profile) runs the gateway on WebFlux and Netty
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveClientConfig {
+
+    //Tomcat is on the classpath for the servlet mode and would be picked first otherwise
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    //reactor.netty.connection.provider.shareit-server.* in /actuator/metrics
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareitServerConnector(ConnectionProvider shareitServerConnectionProvider,
+                                                      HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return new ReactorClientHttpConnector(httpClient);
+    }
+}
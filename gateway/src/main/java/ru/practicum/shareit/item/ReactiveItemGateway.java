@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemGateway {
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @Valid @RequestBody ItemDto itemDto) {
+        return itemClient.create(userId, itemDto);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @PathVariable Long itemId,
+                                                         @RequestBody ItemDto itemDto) {
+        return itemClient.update(userId, itemId, itemDto);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long itemId) {
+        return itemClient.get(userId, itemId);
+    }
+
+    //pagination
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PositiveOrZero @RequestParam(defaultValue = "0") Long from,
+                                                      @Positive @RequestParam(defaultValue = "10") Long size) {
+        return itemClient.get(userId, from, size);
+    }
+
+    //pagination
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> search(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam String text,
+                                                         @PositiveOrZero @RequestParam(defaultValue = "0") Long from,
+                                                         @Positive @RequestParam(defaultValue = "10") Long size
+    ) {
+        return itemClient.search(userId, text, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> comment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @PathVariable Long itemId,
+                                                          @Valid @RequestBody CommentDto commentDto
+    ) {
+        return itemClient.comment(userId, itemId, commentDto);
+    }
+
+}
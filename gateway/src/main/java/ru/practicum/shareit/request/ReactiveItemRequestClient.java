@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    @Autowired
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                     ClientHttpConnector shareitServerConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareitServerConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(Long userId, ItemRequestDto itemRequestDto) {
+        return post("", userId, itemRequestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long userId, Long from, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("/all?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long userId, Long requestId) {
+        return get("/" + requestId, userId);
+    }
+
+}
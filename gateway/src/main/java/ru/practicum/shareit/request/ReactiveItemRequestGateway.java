@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemRequestGateway {
+
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @Valid @RequestBody ItemRequestDto itemRequestDto
+    ) {
+        return itemRequestClient.create(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return itemRequestClient.get(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam(defaultValue = "0") Long from,
+                                                      @RequestParam(defaultValue = "10") Long size
+    ) {
+        return itemRequestClient.get(userId, from, size);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @PathVariable Long requestId
+    ) {
+        return itemRequestClient.get(userId, requestId);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              ClientHttpConnector shareitServerConnector) {
+        super(
+                builder
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(shareitServerConnector)
+                        .build()
+        );
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(Long userId, UserDto userDto) {
+        return patch("/" + userId, userDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(Long userId) {
+        return delete("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(Long from, Long size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(String accept) {
+        return stream("", null, accept);
+    }
+}
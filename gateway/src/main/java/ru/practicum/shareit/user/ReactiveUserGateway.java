@@ -0,0 +1,65 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveUserGateway {
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> create(@Valid @RequestBody UserDto userDto) {
+        return userClient.create(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(@PathVariable Long userId,
+                                                         @RequestBody UserDto userDto) {
+        return userClient.update(userId, userDto);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(@PathVariable Long userId) {
+        return userClient.get(userId);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delete(@PathVariable Long userId) {
+        return userClient.delete(userId);
+    }
+
+    //pagination
+    @GetMapping(params = "size")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Long from,
+            @Positive @RequestParam(name = "size") Long size) {
+        return userClient.get(from, size);
+    }
+
+    //streamed through, a json array or application/x-ndjson as the client asks
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> get(
+            @RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+        return userClient.stream(accept);
+    }
+}
@@ -2,15 +2,23 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
@@ -39,8 +47,17 @@ public class UserGateway {
         return userClient.delete(userId);
     }
 
+    //pagination
+    @GetMapping(params = "size")
+    public ResponseEntity<Object> get(@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Long from,
+                                      @Positive @RequestParam(name = "size") Long size) {
+        return userClient.get(from, size);
+    }
+
+    //streamed through, a json array or application/x-ndjson as the client asks
     @GetMapping
-    public ResponseEntity<Object> get() {
-        return userClient.get();
+    public void get(@RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept,
+                    HttpServletResponse response) throws IOException {
+        userClient.stream(accept, response);
     }
 }
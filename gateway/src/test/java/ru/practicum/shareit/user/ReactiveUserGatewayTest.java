@@ -0,0 +1,115 @@
+package ru.practicum.shareit.user;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+//the gateway on WebFlux in front of a stubbed shareit-server
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveUserGatewayTest {
+
+    private static final MockWebServer server = new MockWebServer();
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        server.start();
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getPort());
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void get() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"id\":1,\"name\":\"user\",\"email\":\"user@user.com\"}"));
+
+        webTestClient.get()
+                .uri("/users/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.email").isEqualTo("user@user.com");
+
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request.getMethod(), is("GET"));
+        assertThat(request.getPath(), is("/users/1"));
+    }
+
+    @Test
+    void errorPassesThrough() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"error\":\"user not found\"}"));
+
+        webTestClient.get()
+                .uri("/users/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("user not found");
+        server.takeRequest(5, TimeUnit.SECONDS);
+
+        server.enqueue(new MockResponse()
+                .setResponseCode(500)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"error\":\"boom\"}"));
+
+        webTestClient.get()
+                .uri("/users/1")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("boom");
+        server.takeRequest(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void stream() throws Exception {
+        String users = "{\"id\":1,\"name\":\"user1\",\"email\":\"user1@user.com\"}\n" +
+                "{\"id\":2,\"name\":\"user2\",\"email\":\"user2@user.com\"}\n";
+        //chunked like the server's streamed listing
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .setChunkedBody(users, 16));
+
+        webTestClient.get()
+                .uri("/users")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .isEqualTo(users);
+
+        RecordedRequest request = server.takeRequest(5, TimeUnit.SECONDS);
+        assertThat(request.getPath(), is("/users"));
+        assertThat(request.getHeader(HttpHeaders.ACCEPT), is(MediaType.APPLICATION_NDJSON_VALUE));
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookingOverlapException extends Exception {
+    public BookingOverlapException(String message) {
+        super(message);
+    }
+}
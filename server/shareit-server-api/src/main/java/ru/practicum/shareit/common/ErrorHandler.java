@@ -1,11 +1,14 @@
 package ru.practicum.shareit.common;
 
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.practicum.shareit.booking.exception.InvalidStatusException;
 
+import javax.validation.ConstraintViolationException;
+
 @RestControllerAdvice
 public class ErrorHandler {
     @ExceptionHandler
@@ -13,4 +16,18 @@ public class ErrorHandler {
     public ErrorResponse handleInvalidStatusException(InvalidStatusException e) {
         return new ErrorResponse(e.getMessage());
     }
+
+    //@Validated parameters of the gateways, e.g. paging bounds and the elements of a booking batch
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(ConstraintViolationException e) {
+        return new ErrorResponse(e.getMessage());
+    }
+
+    //a @RetryOnConflict method that lost the version check on every attempt
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConcurrencyFailureException(ConcurrencyFailureException e) {
+        return new ErrorResponse("concurrent update, try again");
+    }
 }
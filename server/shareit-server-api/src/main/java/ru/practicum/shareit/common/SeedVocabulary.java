@@ -0,0 +1,13 @@
+package ru.practicum.shareit.common;
+
+import java.util.List;
+
+//words DataSeeder builds item names and descriptions from, the load tests search for the same ones
+public final class SeedVocabulary {
+
+    public static final List<String> SEARCH_WORDS = List.of(
+            "drill", "saw", "ladder", "tent", "bike", "camera", "projector", "kayak", "grill", "guitar");
+
+    private SeedVocabulary() {
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//shareit.threads.virtual=true hands Tomcat request processing of the server and the gateway to virtual threads,
+//the bounded JDBC / shareit-server connection pools are then what limits concurrency, not the thread count
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public VirtualThreadsCustomizer virtualThreadsCustomizer() {
+        return new VirtualThreadsCustomizer(newVirtualThreadPerTaskExecutor().orElse(null));
+    }
+
+    //looked up reflectively as the build still targets Java 11, on an older JDK the platform pool stays
+    private static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            log.info("request handling runs on virtual threads");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (NoSuchMethodException e) {
+            log.warn("virtual threads need JDK 21+, keeping platform threads on JDK {}", Runtime.version());
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual thread executor is not available", e);
+        }
+    }
+
+    //owns the executor: Tomcat doesn't shut down an executor it was handed, and an ExecutorService bean
+    //would switch off Boot's applicationTaskExecutor, so it is closed with this bean instead
+    public static class VirtualThreadsCustomizer
+            implements TomcatProtocolHandlerCustomizer<ProtocolHandler>, DisposableBean {
+
+        @Nullable
+        private final ExecutorService executor;
+
+        public VirtualThreadsCustomizer(@Nullable ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void customize(ProtocolHandler protocolHandler) {
+            if (executor != null) protocolHandler.setExecutor(executor);
+        }
+
+        //runs after the web server has stopped, tasks still running are left to finish
+        @Override
+        public void destroy() {
+            if (executor != null) executor.shutdown();
+        }
+    }
+}
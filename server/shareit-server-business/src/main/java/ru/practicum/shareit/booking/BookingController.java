@@ -1,42 +1,66 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidDateTimeException;
 import ru.practicum.shareit.booking.exception.InvalidStatusException;
 import ru.practicum.shareit.booking.exception.NotAvailableException;
+import ru.practicum.shareit.booking.query.BookingCursor;
+import ru.practicum.shareit.booking.query.BookingRole;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.utils.JsonStreamWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private final BookingService bookingService;
 
-    public BookingController(BookingService bookingService) {
+    @Autowired
+    private final ObjectMapper objectMapper;
+
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public BookingInfoDto create(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @RequestBody BookingDto bookingDto
-    ) throws UserNotFoundException, ItemNotFoundException, InvalidDateTimeException, NotAvailableException {
+    ) throws UserNotFoundException, ItemNotFoundException, InvalidDateTimeException, NotAvailableException,
+            BookingOverlapException {
         return bookingService.create(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingInfoDto> create(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestBody List<BookingDto> bookingDtos
+    ) throws UserNotFoundException, ItemNotFoundException, InvalidDateTimeException, NotAvailableException,
+            BookingOverlapException {
+        return bookingService.create(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingInfoDto approve(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @PathVariable Long bookingId,
                                   @RequestParam Boolean approved
-    ) throws UserNotFoundException, BookingNotFoundException, InvalidStatusException {
+    ) throws UserNotFoundException, BookingNotFoundException, InvalidStatusException, BookingOverlapException {
         return bookingService.approve(userId, bookingId, approved);
     }
 
@@ -67,4 +91,56 @@ public class BookingController {
         return bookingService.getByOwner(userId, state, from, size);
     }
 
+    //keyset pagination
+    @GetMapping(params = "cursor")
+    public ResponseEntity<List<BookingInfoDto>> getAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                         @RequestParam String state,
+                                                         @RequestParam(defaultValue = "") String cursor,
+                                                         @RequestParam Long size
+    ) throws UserNotFoundException, InvalidStatusException, PaginationException {
+        return withNextCursor(bookingService.getAfter(userId, state, cursor, size), size);
+    }
+
+    //keyset pagination
+    @GetMapping(path = "/owner", params = "cursor")
+    public ResponseEntity<List<BookingInfoDto>> getByOwnerAfter(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @RequestParam String state,
+                                                                @RequestParam(defaultValue = "") String cursor,
+                                                                @RequestParam Long size
+    ) throws UserNotFoundException, InvalidStatusException, PaginationException {
+        return withNextCursor(bookingService.getByOwnerAfter(userId, state, cursor, size), size);
+    }
+
+    //whole history as ndjson, one cursor instead of paging through it
+    @GetMapping("/export")
+    public void export(@RequestHeader("X-Sharer-User-Id") Long userId,
+                       HttpServletResponse response
+    ) throws UserNotFoundException, IOException {
+        export(userId, BookingRole.BOOKER, response);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                              HttpServletResponse response
+    ) throws UserNotFoundException, IOException {
+        export(userId, BookingRole.OWNER, response);
+    }
+
+    private void export(Long userId, BookingRole role, HttpServletResponse response)
+            throws UserNotFoundException, IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        JsonStreamWriter bookings = new JsonStreamWriter(objectMapper, response.getOutputStream(), true);
+        bookingService.export(userId, role, bookings::write);
+        bookings.close();
+    }
+
+    //a full page gets the cursor of its last booking, a short page means there is nothing left
+    private ResponseEntity<List<BookingInfoDto>> withNextCursor(List<BookingInfoDto> bookings, Long size) {
+        if (bookings.size() < size) return ResponseEntity.ok(bookings);
+        BookingInfoDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
+    }
+
 }
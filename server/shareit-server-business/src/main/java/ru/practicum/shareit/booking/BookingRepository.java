@@ -1,39 +1,38 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
 import ru.practicum.shareit.common.Status;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
-    List<Booking> findAllByBooker_Id(Long userId, PageRequest pageRequest); //all by booker id
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingViewRepository {
 
-    List<Booking> findAllByBooker_IdAndStartIsAfter(Long userId, LocalDateTime start, PageRequest pageRequest); //future by booker id
+    @Override
+    @EntityGraph("Booking.item")
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(
-            Long userId, LocalDateTime start, LocalDateTime end, PageRequest pageRequest); //current by booker id
+    @EntityGraph("Booking.item")
+    List<Booking> findAllByStatus(Status status);
 
-    List<Booking> findAllByBooker_IdAndEndIsBefore(Long userId, LocalDateTime start, PageRequest pageRequest); //past by booker id
+    List<Booking> findAllByItem_IdAndStatus(Long itemId, Status status);
 
-    List<Booking> findAllByBooker_IdAndStatus(Long userId, Status status, PageRequest pageRequest); //by status and booker id
-
-    List<Booking> findAllByItem_Owner_Id(Long userId, PageRequest pageRequest); // all by owner id
-
-    List<Booking> findAllByItem_Owner_IdAndStartIsAfter(
-            Long userId, LocalDateTime start, PageRequest pageRequest); // future by owner id
-
-    List<Booking> findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(
-            Long userId, LocalDateTime start, LocalDateTime end, PageRequest pageRequest); //current by owner id
-
-    List<Booking> findAllByItem_Owner_IdAndEndIsBefore(Long userId, LocalDateTime start, PageRequest pageRequest); //past by owner id
-
-    List<Booking> findAllByItem_Owner_IdAndStatus(Long userId, Status status, PageRequest pageRequest); //by status and owner id
+    //tsrange && is answered by the GiST index of the approved-overlap exclusion constraint, postgres only
+    @Query(value = "select exists(select 1 from bookings as b " +
+            "where b.item_id = ?1 and b.status = 'APPROVED' " +
+            "and tsrange(b.start_date, b.end_date) && tsrange(?2, ?3))", nativeQuery = true)
+    boolean existsApprovedOverlap(Long itemId, LocalDateTime start, LocalDateTime end);
 
     Optional<Booking> findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(
             Long itemId, LocalDateTime end, Status status, Sort sort);
@@ -44,4 +43,32 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Optional<Booking> findTop1BookingByItem_IdAndBooker_IdAndEndIsBeforeAndStatusIs(
             Long itemId, Long bookerId, LocalDateTime end, Status status, Sort sort);
 
+    @Query(value = "select * from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date desc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.end_date < ?2" +
+            ") as last_bookings where rn = 1", nativeQuery = true)
+    List<Booking> findLastApprovedByItemIds(List<Long> itemIdList, LocalDateTime now); //last approved per item
+
+    @Query(value = "select * from (" +
+            "select b.*, row_number() over (partition by b.item_id order by b.end_date asc) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.status = 'APPROVED' and b.end_date > ?2" +
+            ") as next_bookings where rn = 1", nativeQuery = true)
+    List<Booking> findNextApprovedByItemIds(List<Long> itemIdList, LocalDateTime now); //next approved per item
+
+    //full history for the export, a forward-only cursor over the listing columns, newest first
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.projection.BookingInfoView(" +
+            "b.id, b.start, b.end, b.status, it.id, it.name, b.booker.id) " +
+            "from Booking as b join b.item as it " +
+            "where b.booker.id = ?1 order by b.start desc, b.id desc")
+    Stream<BookingInfoView> streamViewsByBooker(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.projection.BookingInfoView(" +
+            "b.id, b.start, b.end, b.status, it.id, it.name, b.booker.id) " +
+            "from Booking as b join b.item as it " +
+            "where it.owner.id = ?1 order by b.start desc, b.id desc")
+    Stream<BookingInfoView> streamViewsByOwner(Long ownerId);
 }
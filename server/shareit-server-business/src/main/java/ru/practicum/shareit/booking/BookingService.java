@@ -3,22 +3,30 @@ package ru.practicum.shareit.booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidDateTimeException;
 import ru.practicum.shareit.booking.exception.InvalidStatusException;
 import ru.practicum.shareit.booking.exception.NotAvailableException;
+import ru.practicum.shareit.booking.query.BookingRole;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     BookingInfoDto create(Long userId, BookingDto bookingDto)
-            throws UserNotFoundException, ItemNotFoundException, NotAvailableException, InvalidDateTimeException;
+            throws UserNotFoundException, ItemNotFoundException, NotAvailableException, InvalidDateTimeException,
+            BookingOverlapException;
+
+    List<BookingInfoDto> create(Long userId, List<BookingDto> bookingDtos)
+            throws UserNotFoundException, ItemNotFoundException, NotAvailableException, InvalidDateTimeException,
+            BookingOverlapException;
 
     BookingInfoDto approve(Long userId, Long bookingId, Boolean approved)
-            throws BookingNotFoundException, UserNotFoundException, InvalidStatusException;
+            throws BookingNotFoundException, UserNotFoundException, InvalidStatusException, BookingOverlapException;
 
     BookingInfoDto get(Long userId, Long bookingId)
             throws BookingNotFoundException, UserNotFoundException;
@@ -28,4 +36,12 @@ public interface BookingService {
 
     List<BookingInfoDto> getByOwner(Long userId, String state, Long from, Long size)
             throws UserNotFoundException, InvalidStatusException, PaginationException;
+
+    List<BookingInfoDto> getAfter(Long userId, String state, String cursor, Long size)
+            throws UserNotFoundException, InvalidStatusException, PaginationException;
+
+    List<BookingInfoDto> getByOwnerAfter(Long userId, String state, String cursor, Long size)
+            throws UserNotFoundException, InvalidStatusException, PaginationException;
+
+    void export(Long userId, BookingRole role, Consumer<BookingInfoDto> sink) throws UserNotFoundException;
 }
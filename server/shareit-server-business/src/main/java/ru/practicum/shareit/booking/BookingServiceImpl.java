@@ -1,40 +1,60 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidDateTimeException;
 import ru.practicum.shareit.booking.exception.InvalidStatusException;
 import ru.practicum.shareit.booking.exception.NotAvailableException;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.strategy.BookingStateFetchStrategy;
-import ru.practicum.shareit.booking.strategy.StrategyFactoryForBooker;
-import ru.practicum.shareit.booking.strategy.StrategyFactoryForOwner;
-import ru.practicum.shareit.booking.strategy.StrategyName;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.booking.query.BookingCursor;
+import ru.practicum.shareit.booking.query.BookingRole;
+import ru.practicum.shareit.booking.query.BookingSpecifications;
+import ru.practicum.shareit.concurrency.RetryOnConflict;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.common.State;
 import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.ItemBookingPointers;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.time.RequestTime;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.utils.PageRequestManager;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "excl_bookings_approved_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     @Autowired
     private final UserRepository userRepository;
     @Autowired
@@ -43,24 +63,35 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
 
     @Autowired
-    private final StrategyFactoryForOwner strategyFactoryForOwner;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    private final RequestTime requestTime;
 
     @Autowired
-    private final StrategyFactoryForBooker strategyFactoryForBooker;
+    private final ItemBookingPointers itemBookingPointers;
+
+    @Autowired
+    private final BookingOverlapGuard bookingOverlapGuard;
 
     public BookingServiceImpl(
             UserRepository userRepository, ItemRepository itemRepository, BookingRepository bookingRepository,
-            StrategyFactoryForOwner strategyFactoryForOwner, StrategyFactoryForBooker strategyFactoryForBooker) {
+            MeterRegistry meterRegistry, RequestTime requestTime, ItemBookingPointers itemBookingPointers,
+            BookingOverlapGuard bookingOverlapGuard) {
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingRepository = bookingRepository;
-        this.strategyFactoryForOwner = strategyFactoryForOwner;
-        this.strategyFactoryForBooker = strategyFactoryForBooker;
+        this.meterRegistry = meterRegistry;
+        this.requestTime = requestTime;
+        this.itemBookingPointers = itemBookingPointers;
+        this.bookingOverlapGuard = bookingOverlapGuard;
     }
 
     @Override
+    @Transactional
     public BookingInfoDto create(Long userId, BookingDto bookingDto)
-            throws UserNotFoundException, ItemNotFoundException, NotAvailableException, InvalidDateTimeException {
+            throws UserNotFoundException, ItemNotFoundException, NotAvailableException, InvalidDateTimeException,
+            BookingOverlapException {
         Long itemId = bookingDto.getItemId();
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("item not found"));
         if (!item.getAvailable()) throw new NotAvailableException("item is not available");
@@ -68,6 +99,9 @@ public class BookingServiceImpl implements BookingService {
 
         User booker = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
         if (booker.getId().equals(item.getOwner().getId())) throw new UserNotFoundException("user not found");
+        if (bookingOverlapGuard.overlapsApproved(itemId, bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new BookingOverlapException("booking overlaps");
+        }
 
         Booking booking = BookingMapper.toBooking(bookingDto);
         booking.setItem(item);
@@ -77,9 +111,48 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.toBookingInfoDto(booking);
     }
 
+    //bulk create: the booker and all the items are loaded once, the whole list is checked before anything is saved,
+    //then saveAll goes out as batched inserts with ids from the pooled bookings_seq
+    @Override
+    @Transactional
+    public List<BookingInfoDto> create(Long userId, List<BookingDto> bookingDtos)
+            throws UserNotFoundException, ItemNotFoundException, NotAvailableException, InvalidDateTimeException,
+            BookingOverlapException {
+        User booker = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
+        List<Long> itemIdList = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllById(itemIdList).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>(bookingDtos.size());
+        for (BookingDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) throw new ItemNotFoundException("item not found");
+            if (!item.getAvailable()) throw new NotAvailableException("item is not available");
+            if (!bookingDto.getEnd().isAfter(bookingDto.getStart())) throw new InvalidDateTimeException("time is wrong");
+            if (booker.getId().equals(item.getOwner().getId())) throw new UserNotFoundException("user not found");
+            if (bookingOverlapGuard.overlapsApproved(item.getId(), bookingDto.getStart(), bookingDto.getEnd())) {
+                throw new BookingOverlapException("booking overlaps");
+            }
+
+            Booking booking = BookingMapper.toBooking(bookingDto);
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(Status.WAITING);
+            bookings.add(booking);
+        }
+        return bookingRepository.saveAll(bookings).stream()
+                .map(BookingMapper::toBookingInfoDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
+    @Transactional(rollbackFor = BookingOverlapException.class)
+    @RetryOnConflict
     public BookingInfoDto approve(Long userId, Long bookingId, Boolean approved)
-            throws BookingNotFoundException, UserNotFoundException, InvalidStatusException {
+            throws BookingNotFoundException, UserNotFoundException, InvalidStatusException, BookingOverlapException {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("booking not found"));
         Item item = booking.getItem();
@@ -87,11 +160,34 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(Status.APPROVED) ||
                 booking.getStatus().equals(Status.REJECTED)) throw new InvalidStatusException("no change allowed");
         if (approved != null) booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
-        booking = bookingRepository.save(booking);
+        try {
+            //flushed here, a concurrent decision on the same booking loses its Booking.version check right away
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) throw e;
+            throw new BookingOverlapException("booking overlaps"); //the postgres exclusion constraint
+        }
+        if (booking.getStatus() != Status.APPROVED) return BookingMapper.toBookingInfoDto(booking);
+        if (!bookingOverlapGuard.reserve(booking)) throw new BookingOverlapException("booking overlaps");
+        itemBookingPointers.approved(booking); //waiting ones don't count
         return BookingMapper.toBookingInfoDto(booking);
     }
 
+    //hibernate doesn't extract the constraint name of a postgres exclusion violation, so its SQLState is checked too
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException &&
+                    OVERLAP_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException &&
+                    EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) return true;
+        }
+        return false;
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public BookingInfoDto get(Long userId, Long bookingId) throws BookingNotFoundException, UserNotFoundException {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new BookingNotFoundException("booking not found"));
@@ -104,38 +200,86 @@ public class BookingServiceImpl implements BookingService {
 
     //pagination
     @Override()
+    @Transactional(readOnly = true)
     public List<BookingInfoDto> get(Long userId, String value, Long from, Long size)
             throws UserNotFoundException, InvalidStatusException, PaginationException {
         State state = State.valueOf(value);
-        StrategyName strategyName = StrategyName.valueOf(state.name());
         User booker = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
-        List<Booking> bookings = new ArrayList<>();
         PageRequest pageReq = PageRequestManager.form(
                 from.intValue(), size.intValue(), Sort.Direction.DESC, "start");
-        BookingStateFetchStrategy strategyForBooker = strategyFactoryForBooker.findStrategy(strategyName);
-        bookings = strategyForBooker.fetch(userId, pageReq);
-        return bookings.isEmpty() ? Collections.emptyList() : bookings.stream()
-                .map(BookingMapper::toBookingInfoDto)
-                .collect(Collectors.toList());
+        return fetch(BookingRole.BOOKER, state, userId, null, pageReq, "offset");
     }
 
     //pagination
     @Override
+    @Transactional(readOnly = true)
     public List<BookingInfoDto> getByOwner(Long userId, String value, Long from, Long size)
             throws UserNotFoundException, InvalidStatusException, PaginationException {
         State state = State.valueOf(value);
-        StrategyName strategyName = StrategyName.valueOf(state.name());
         User owner = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
-        List<Booking> bookings = new ArrayList<>();
         PageRequest pageReq = PageRequestManager.form(
                 from.intValue(), size.intValue(), Sort.Direction.DESC, "start");
-        BookingStateFetchStrategy strategyForOwner = strategyFactoryForOwner.findStrategy(strategyName);
-        bookings = strategyForOwner.fetch(userId, pageReq);
-        return bookings.isEmpty() ? Collections.emptyList() : bookings.stream()
+        return fetch(BookingRole.OWNER, state, userId, null, pageReq, "offset");
+    }
+
+    //keyset pagination
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingInfoDto> getAfter(Long userId, String value, String cursor, Long size)
+            throws UserNotFoundException, InvalidStatusException, PaginationException {
+        State state = State.valueOf(value);
+        User booker = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
+        return fetchAfter(BookingRole.BOOKER, state, userId, cursor, size);
+    }
+
+    //keyset pagination
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingInfoDto> getByOwnerAfter(Long userId, String value, String cursor, Long size)
+            throws UserNotFoundException, InvalidStatusException, PaginationException {
+        State state = State.valueOf(value);
+        User owner = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
+        return fetchAfter(BookingRole.OWNER, state, userId, cursor, size);
+    }
+
+    //an empty cursor starts from the first page, otherwise seeks past the (start, id) of the cursor
+    private List<BookingInfoDto> fetchAfter(BookingRole role, State state, Long userId, String cursor, Long size)
+            throws PaginationException {
+        PageRequest pageReq = PageRequestManager.form(0, size.intValue(), Sort.Direction.DESC, "start", "id");
+        BookingCursor bookingCursor = cursor.isEmpty() ? null : BookingCursor.decode(cursor);
+        return fetch(role, state, userId, bookingCursor, pageReq, "keyset");
+    }
+
+    //role + state (+ cursor) -> one select, timed as shareit.booking.listing{role, state, paging}
+    private List<BookingInfoDto> fetch(BookingRole role, State state, Long userId, BookingCursor cursor,
+                                       PageRequest pageReq, String paging) {
+        Specification<Booking> specification = Specification.where(BookingSpecifications.ofRole(role, userId))
+                .and(BookingSpecifications.inState(state, requestTime.now()))
+                .and(BookingSpecifications.after(cursor));
+        List<BookingInfoView> bookings = Timer.builder("shareit.booking.listing")
+                .description("booking listing fetch per role and state")
+                .tag("role", role.name())
+                .tag("state", state.name())
+                .tag("paging", paging)
+                .register(meterRegistry)
+                .record(() -> bookingRepository.findViews(specification, pageReq));
+        return bookings.stream()
                 .map(BookingMapper::toBookingInfoDto)
                 .collect(Collectors.toList());
     }
 
+    //full history of a booker or an owner, handed over row by row while the cursor is read
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Long userId, BookingRole role, Consumer<BookingInfoDto> sink) throws UserNotFoundException {
+        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
+        try (Stream<BookingInfoView> bookings = role == BookingRole.BOOKER
+                ? bookingRepository.streamViewsByBooker(userId)
+                : bookingRepository.streamViewsByOwner(userId)) {
+            bookings.forEach(booking -> sink.accept(BookingMapper.toBookingInfoDto(booking)));
+        }
+    }
+
     /*private State validateState(String value) throws InvalidStatusException {
         State state = State.ALL;
         try {
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+
+import java.util.List;
+
+public interface BookingViewRepository {
+
+    //listings select only what BookingInfoDto needs, straight into BookingInfoView
+    List<BookingInfoView> findViews(Specification<Booking> specification, Pageable pageable);
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.booking.query.BookingSpecifications;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+public class BookingViewRepositoryImpl implements BookingViewRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingInfoView> findViews(Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingInfoView> query = cb.createQuery(BookingInfoView.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = BookingSpecifications.item(root);
+        query.select(cb.construct(BookingInfoView.class,
+                root.get("id"), root.get("start"), root.get("end"), root.get("status"),
+                item.get("id"), item.get("name"), root.get("booker").get("id")));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<BookingInfoView> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+}
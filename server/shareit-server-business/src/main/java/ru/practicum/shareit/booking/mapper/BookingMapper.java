@@ -2,7 +2,10 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.dto.LastBookingDto;
+import ru.practicum.shareit.booking.dto.NextBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.user.dto.UserInfoDto;
 
@@ -24,6 +27,22 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingInfoDto toBookingInfoDto(BookingInfoView booking) {
+        return BookingInfoDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(ItemInfoDto.builder()
+                        .id(booking.getItemId())
+                        .name(booking.getItemName())
+                        .build())
+                .booker(UserInfoDto.builder()
+                        .id(booking.getBookerId())
+                        .build())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Booking toBooking(BookingDto bookingDto) {
         return Booking.builder()
                 .id(bookingDto.getId())
@@ -31,4 +50,22 @@ public class BookingMapper {
                 .end(bookingDto.getEnd())
                 .build();
     }
+
+    public static LastBookingDto toLastBookingDto(Booking booking) {
+        return LastBookingDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
+
+    public static NextBookingDto toNextBookingDto(Booking booking) {
+        return NextBookingDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBooker().getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+    }
 }
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
+@NamedEntityGraph(name = "Booking.item", attributeNodes = @NamedAttributeNode("item"))
 @Table(name = "bookings")
 @Getter
 @Setter
@@ -20,8 +21,9 @@ import java.util.Objects;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // уникальный идентификатор бронирования
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
+    private Long id; // уникальный идентификатор бронирования, блоками по 50 из bookings_seq
 
     @Column(name = "start_date")
     private LocalDateTime start; // дата и время начала бронирования
@@ -29,18 +31,23 @@ public class Booking {
     @Column(name = "end_date")
     private LocalDateTime end; // дата и время конца бронирования
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
+    @ToString.Exclude
     private Item item; // вещь которую пользователь бронирует
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
+    @ToString.Exclude
     private User booker; // пользователь, который осуществляет бронирование
 
     @Enumerated(EnumType.STRING)
     @Column(name = "status")
     private Status status; // статус бронирования
 
+    @Version
+    private Long version; // версия строки, конкурентные изменения отклоняются
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.overlap;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Union of the approved [start, end) intervals of one item, kept as disjoint intervals keyed by start.
+ * Overlapping any approved booking means overlapping the union, and with disjoint intervals the only
+ * candidate is the last one starting before the end, so a check is a single O(log n) lookup.
+ */
+public class ApprovedIntervals {
+
+    private final TreeMap<LocalDateTime, LocalDateTime> intervals = new TreeMap<>();
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.lowerEntry(end);
+        return candidate != null && candidate.getValue().isAfter(start);
+    }
+
+    //merges every interval the new one overlaps
+    public void add(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> candidate = intervals.lowerEntry(end);
+        while (candidate != null && candidate.getValue().isAfter(start)) {
+            intervals.remove(candidate.getKey());
+            if (candidate.getKey().isBefore(start)) start = candidate.getKey();
+            if (candidate.getValue().isAfter(end)) end = candidate.getValue();
+            candidate = intervals.lowerEntry(end);
+        }
+        intervals.put(start, end);
+    }
+
+    //takes back an interval added on its own, one that didn't overlap anything when it went in
+    public void remove(LocalDateTime start, LocalDateTime end) {
+        intervals.remove(start, end);
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+}
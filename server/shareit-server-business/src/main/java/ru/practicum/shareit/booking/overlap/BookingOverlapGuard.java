@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.overlap;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Finds approved bookings of an item overlapping [start, end), selected by the shareit.booking.overlap
+ * property (postgres or memory).
+ */
+public interface BookingOverlapGuard {
+
+    boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    //called by the approving transaction once the approval is flushed, false means it overlaps an approved booking
+    boolean reserve(Booking booking);
+}
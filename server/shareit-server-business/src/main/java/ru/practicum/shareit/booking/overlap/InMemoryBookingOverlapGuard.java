@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.Status;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//per-item approved intervals in process, meant for the single-instance H2 profile that has no exclusion constraint
+@Component
+@ConditionalOnProperty(name = "shareit.booking.overlap", havingValue = "memory")
+public class InMemoryBookingOverlapGuard implements BookingOverlapGuard {
+
+    private final Map<Long, ApprovedIntervals> approvedByItem = new ConcurrentHashMap<>();
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    private final TransactionTemplate committedOnly;
+
+    public InMemoryBookingOverlapGuard(BookingRepository bookingRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.committedOnly = new TransactionTemplate(transactionManager);
+        //not read-only: ReplicaRoutingDataSource would send it to a replica that may not have the latest approvals yet
+        this.committedOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        approvedByItem.clear();
+        bookingRepository.findAllByStatus(Status.APPROVED).forEach(booking -> approvedByItem
+                .computeIfAbsent(booking.getItem().getId(), itemId -> new ApprovedIntervals())
+                .add(booking.getStart(), booking.getEnd()));
+    }
+
+    @Override
+    public boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        ApprovedIntervals intervals = intervals(itemId);
+        synchronized (intervals) {
+            return intervals.overlaps(start, end);
+        }
+    }
+
+    //check and add are one step under the item's intervals, so two approvals can't both get in;
+    //the interval is counted right away and taken back if the approving transaction doesn't commit
+    @Override
+    public boolean reserve(Booking booking) {
+        ApprovedIntervals intervals = intervals(booking.getItem().getId());
+        synchronized (intervals) {
+            if (intervals.overlaps(booking.getStart(), booking.getEnd())) return false;
+            intervals.add(booking.getStart(), booking.getEnd());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) return;
+                    synchronized (intervals) {
+                        intervals.remove(booking.getStart(), booking.getEnd());
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    //loaded outside the map's compute so a slow query doesn't block other items' bins;
+    //if two loads race the first one in wins and the other is dropped, both read the same committed rows
+    private ApprovedIntervals intervals(Long itemId) {
+        ApprovedIntervals intervals = approvedByItem.get(itemId);
+        if (intervals != null) return intervals;
+        intervals = load(itemId);
+        ApprovedIntervals raced = approvedByItem.putIfAbsent(itemId, intervals);
+        return raced != null ? raced : intervals;
+    }
+
+    //outside the caller's transaction, which may already hold the flushed approval being reserved
+    private ApprovedIntervals load(Long itemId) {
+        ApprovedIntervals intervals = new ApprovedIntervals();
+        committedOnly.executeWithoutResult(status -> bookingRepository
+                .findAllByItem_IdAndStatus(itemId, Status.APPROVED)
+                .forEach(booking -> intervals.add(booking.getStart(), booking.getEnd())));
+        return intervals;
+    }
+}
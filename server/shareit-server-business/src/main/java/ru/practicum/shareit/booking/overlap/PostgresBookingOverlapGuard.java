@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+//probes the GiST index behind the approved-overlap exclusion constraint from db/vendor/postgresql
+@Component
+@ConditionalOnProperty(name = "shareit.booking.overlap", havingValue = "postgres")
+public class PostgresBookingOverlapGuard implements BookingOverlapGuard {
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    public PostgresBookingOverlapGuard(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @Override
+    public boolean overlapsApproved(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsApprovedOverlap(itemId, start, end);
+    }
+
+    //the exclusion constraint already checked the approval when it was flushed, waiting on a concurrent one if needed
+    @Override
+    public boolean reserve(Booking booking) {
+        return true;
+    }
+}
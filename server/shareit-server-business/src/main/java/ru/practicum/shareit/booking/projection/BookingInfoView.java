@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.common.Status;
+
+import java.time.LocalDateTime;
+
+//read-only row for booking listings, built by "select new" so no entity enters the persistence context
+@Getter
+@AllArgsConstructor
+public class BookingInfoView {
+
+    private final Long id;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    private final Status status;
+
+    private final Long itemId;
+
+    private final String itemName;
+
+    private final Long bookerId;
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.common.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor pointing at the last booking of a page in "start desc, id desc" order.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime start;
+
+    private final Long id;
+
+    public String encode() {
+        String raw = start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) throws PaginationException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) throw new PaginationException("paging invalid");
+            return new BookingCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaginationException("paging invalid");
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.query;
+
+//whose bookings are listed: the ones a user made or the ones made on a user's items
+public enum BookingRole {
+    BOOKER,
+    OWNER
+}
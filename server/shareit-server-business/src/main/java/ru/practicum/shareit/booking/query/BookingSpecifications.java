@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.query;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.State;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+
+/**
+ * Predicates for booking listings: role + state (+ keyset cursor) compose into a single select.
+ * Values are bound as parameters (hibernate.criteria.literal_handling_mode=bind), so each
+ * role/state/cursor combination renders the same query and reuses its cached plan.
+ */
+public final class BookingSpecifications {
+
+    private BookingSpecifications() {
+    }
+
+    public static Specification<Booking> ofRole(BookingRole role, Long userId) {
+        switch (role) {
+            case BOOKER:
+                return (root, query, cb) -> cb.equal(root.get("booker").get("id"), userId);
+            case OWNER:
+                return (root, query, cb) -> cb.equal(item(root).get("owner").get("id"), userId);
+            default:
+                throw new IllegalArgumentException("Unknown role: " + role);
+        }
+    }
+
+    //a new State only needs its case here
+    public static Specification<Booking> inState(State state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return null;
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThan(root.get("start"), now),
+                        cb.greaterThan(root.get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case WAITING:
+                return (root, query, cb) -> cb.equal(root.get("status"), Status.WAITING);
+            case REJECTED:
+                return (root, query, cb) -> cb.equal(root.get("status"), Status.REJECTED);
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+    }
+
+    //keyset pagination: rows strictly after the (start, id) cursor in "start desc, id desc" order
+    public static Specification<Booking> after(BookingCursor cursor) {
+        if (cursor == null) return null;
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("start"), cursor.getStart()),
+                cb.and(cb.equal(root.get("start"), cursor.getStart()), cb.lessThan(root.get("id"), cursor.getId())));
+    }
+
+    //one inner join to items shared by the owner predicate and the projection
+    @SuppressWarnings("unchecked")
+    public static Join<Booking, Item> item(Root<Booking> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals("item"))
+                .map(join -> (Join<Booking, Item>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("item", JoinType.INNER));
+    }
+}
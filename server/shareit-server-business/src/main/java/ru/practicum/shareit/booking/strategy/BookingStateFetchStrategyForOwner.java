@@ -1,4 +0,0 @@
-package ru.practicum.shareit.booking.strategy;
-
-public interface BookingStateFetchStrategyForOwner extends BookingStateFetchStrategy {
-}
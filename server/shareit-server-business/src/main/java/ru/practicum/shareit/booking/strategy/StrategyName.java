@@ -1,10 +0,0 @@
-package ru.practicum.shareit.booking.strategy;
-
-public enum StrategyName {
-    ALL,
-    CURRENT,
-    PAST,
-    FUTURE,
-    WAITING,
-    REJECTED
-}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated transactional method again when it loses an optimistic lock (a @Version check) or hits
+ * another concurrency failure, up to attempts times. Each attempt is a fresh transaction that re-reads the rows,
+ * so the business checks see whatever the winning transaction committed.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    int attempts() default 3;
+}
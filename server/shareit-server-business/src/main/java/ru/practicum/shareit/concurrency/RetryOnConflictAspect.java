@@ -0,0 +1,42 @@
+package ru.practicum.shareit.concurrency;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+//runs just outside the transaction advice (LOWEST_PRECEDENCE), a conflict only shows up when the losing
+//transaction flushes or commits and the retry needs a transaction of its own
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class RetryOnConflictAspect {
+
+    @Autowired
+    private final MeterRegistry meterRegistry;
+
+    public RetryOnConflictAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= retryOnConflict.attempts()) throw e;
+                meterRegistry.counter("shareit.conflict.retries",
+                        "method", joinPoint.getSignature().toShortString()).increment();
+                log.debug("{} lost a concurrent update, attempt {}", joinPoint.getSignature().toShortString(), attempt);
+            }
+        }
+    }
+}
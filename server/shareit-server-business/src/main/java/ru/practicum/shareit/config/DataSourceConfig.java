@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+//@Transactional(readOnly = true) service methods read from the replicas,
+//HibernateJpaDialect also switches those sessions to FlushMode.MANUAL
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      ReplicaProperties replicaProperties) {
+        List<ReplicaProperties.Replica> replicaList = replicaProperties.getReplicas();
+        List<DataSource> replicas = IntStream.range(0, replicaList.size())
+                .mapToObj(i -> replicaDataSource(primaryDataSource, replicaList.get(i), i))
+                .collect(Collectors.toList());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    //the connection is only taken on the first statement, after the transaction is marked read-only
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    //spring.datasource.hikari.* (pool size, timeouts, metrics) carried over from the primary, only the target differs
+    private static DataSource replicaDataSource(HikariDataSource primaryDataSource,
+                                                ReplicaProperties.Replica replica, int index) {
+        HikariDataSource dataSource = new HikariDataSource();
+        primaryDataSource.copyStateTo(dataSource);
+        dataSource.setPoolName(ReplicaRoutingDataSource.REPLICA + index);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername());
+        dataSource.setPassword(replica.getPassword());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//read-only transactions go round-robin to the replicas, everything else to the primary
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica-";
+
+    private final List<DataSource> replicas;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return PRIMARY;
+        return REPLICA + Math.floorMod(counter.getAndIncrement(), replicas.size());
+    }
+
+    //replica pools are built here rather than as beans, so they are closed here too
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable) ((AutoCloseable) replica).close();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -7,6 +8,10 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph("Comment.author")
     public List<Comment> findAllByItem_Id(Long itemId);
 
+    @EntityGraph("Comment.author")
+    public List<Comment> findAllByItem_IdIn(List<Long> itemIdList);
+
 }
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.time.RequestTime;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps Item.lastBooking / Item.nextBooking (last ended and next ending approved booking) current:
+ * approvals update them in place and a scheduled job rolls items forward once their next booking is over.
+ * Until the job gets to an item its pointers are stale and readers fall back to the bookings table.
+ */
+@Slf4j
+@Component
+public class ItemBookingPointers {
+
+    private static final int ROLL_FORWARD_BATCH = 100;
+    private static final int ROLL_FORWARD_ATTEMPTS = 3;
+
+    private static final Sort END_DESC = Sort.by(Sort.Direction.DESC, "end");
+    private static final Sort END_ASC = Sort.by(Sort.Direction.ASC, "end");
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private final RequestTime requestTime;
+
+    public ItemBookingPointers(ItemRepository itemRepository, BookingRepository bookingRepository,
+                               TransactionTemplate transactionTemplate, RequestTime requestTime) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.requestTime = requestTime;
+    }
+
+    //within the approving transaction, a concurrent change to the same item fails its Item.version check and retries
+    public void approved(Booking booking) {
+        Item item = booking.getItem();
+        LocalDateTime now = requestTime.now();
+        if (isStale(item, now)) {
+            refresh(item, now);
+        } else if (booking.getEnd().isBefore(now)) {
+            if (item.getLastBooking() == null || booking.getEnd().isAfter(item.getLastBooking().getEnd())) {
+                item.setLastBooking(booking);
+            }
+        } else if (booking.getEnd().isAfter(now)) {
+            if (item.getNextBooking() == null || booking.getEnd().isBefore(item.getNextBooking().getEnd())) {
+                item.setNextBooking(booking);
+            }
+        }
+    }
+
+    public Booking last(Item item, LocalDateTime now) {
+        if (!isStale(item, now)) return item.getLastBooking();
+        return bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(
+                item.getId(), now, Status.APPROVED, END_DESC).orElse(null);
+    }
+
+    public Booking next(Item item, LocalDateTime now) {
+        if (!isStale(item, now)) return item.getNextBooking();
+        return bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(
+                item.getId(), now, Status.APPROVED, END_ASC).orElse(null);
+    }
+
+    //the next booking is over, so both pointers are behind
+    public static boolean isStale(Item item, LocalDateTime now) {
+        return item.getNextBooking() != null && !item.getNextBooking().getEnd().isAfter(now);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-pointers.roll-forward-delay}",
+            initialDelayString = "${shareit.items.booking-pointers.roll-forward-delay}")
+    public void rollForward() {
+        LocalDateTime now = requestTime.now();
+        int rolled = 0;
+        int conflicts = 0;
+        int batch = ROLL_FORWARD_BATCH;
+        do {
+            try {
+                batch = transactionTemplate.execute(status -> {
+                    List<Item> items = itemRepository.findAllByNextBooking_EndLessThanEqual(
+                            now, PageRequest.of(0, ROLL_FORWARD_BATCH));
+                    items.forEach(item -> refresh(item, now));
+                    return items.size();
+                });
+                rolled += batch;
+                conflicts = 0;
+            } catch (ConcurrencyFailureException e) {
+                //an approval, an owner's edit or another instance got to an item first, the batch is read again
+                if (++conflicts == ROLL_FORWARD_ATTEMPTS) {
+                    log.warn("booking pointer roll-forward stopped after {} conflicts in a row, the next run goes on",
+                            conflicts);
+                    break;
+                }
+            }
+        } while (batch == ROLL_FORWARD_BATCH);
+        if (rolled > 0) log.debug("rolled booking pointers forward for {} items", rolled);
+    }
+
+    private void refresh(Item item, LocalDateTime now) {
+        item.setLastBooking(bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(
+                item.getId(), now, Status.APPROVED, END_DESC).orElse(null));
+        item.setNextBooking(bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(
+                item.getId(), now, Status.APPROVED, END_ASC).orElse(null));
+    }
+}
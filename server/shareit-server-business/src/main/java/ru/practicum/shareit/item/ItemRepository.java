@@ -1,14 +1,22 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemInfoView;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @EntityGraph(attributePaths = {"lastBooking", "nextBooking"})
     List<Item> findAllByOwner_Id(Long userId, PageRequest pageRequest);
 
     @Query("from Item as it " +
@@ -18,8 +26,33 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "(upper(it.name) like upper(concat('%',?1,'%')) or upper(it.description) like upper(concat('%',?1,'%')))")
     List<Item> searchAvailableByText(String text, PageRequest pageRequest);
 
-    List<Item> findAllByRequest_Id(Long requestId);
-
-    List<Item> findAllByRequest_IdIn(List<Long> requestIdList);
+    @Query(value = "select * from items as it " +
+            "where " +
+            "it.is_available = true " +
+            "and " +
+            "(upper(it.name) like upper(concat('%', ?1, '%')) or upper(it.description) like upper(concat('%', ?1, '%'))) " +
+            "order by greatest(similarity(upper(it.name), upper(?1)), similarity(upper(it.description), upper(?1))) desc, " +
+            "it.id", nativeQuery = true)
+    List<Item> searchAvailableByTextRanked(String text, PageRequest pageRequest); //postgres pg_trgm only
+
+    //just the columns ItemMapper shows under a request, request_id is read off the items row without a join
+    @Query("select new ru.practicum.shareit.item.projection.ItemInfoView(" +
+            "it.id, it.name, it.description, it.available, it.request.id) " +
+            "from Item as it " +
+            "where it.request.id in ?1")
+    List<ItemInfoView> findViewsByRequestIds(Collection<Long> requestIds);
+
+    List<Item> findAllByNextBooking_EndLessThanEqual(LocalDateTime now, Pageable pageable); //next booking is over
+
+    @Modifying
+    @Transactional
+    @Query(value = "update items set " +
+            "last_booking_id = (select b.id from bookings as b " +
+            "where b.item_id = items.id and b.status = 'APPROVED' and b.end_date < ?1 " +
+            "order by b.end_date desc limit 1), " +
+            "next_booking_id = (select b.id from bookings as b " +
+            "where b.item_id = items.id and b.status = 'APPROVED' and b.end_date > ?1 " +
+            "order by b.end_date asc limit 1)", nativeQuery = true)
+    int rebuildBookingPointers(LocalDateTime now); //all items at once, after bulk loads
 
 }
@@ -1,15 +1,17 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.LastBookingDto;
-import ru.practicum.shareit.booking.dto.NextBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.concurrency.RetryOnConflict;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.exception.InvalidCommentException;
@@ -18,16 +20,19 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.time.RequestTime;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
-import javax.transaction.Transactional;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 public class ItemServiceImpl implements ItemService {
 
     @Autowired
@@ -42,15 +47,35 @@ public class ItemServiceImpl implements ItemService {
     @Autowired
     private final CommentRepository commentRepository;
 
+    @Autowired
+    private final ItemSearchEngine itemSearchEngine;
+
+    @Autowired
+    private final ItemBookingPointers itemBookingPointers;
+
+    @Autowired
+    private final RequestTime requestTime;
+
+    @Autowired
+    private final Clock clock;
+
     public ItemServiceImpl(UserRepository userRepository,
                            ItemRepository itemRepository,
                            BookingRepository bookingRepository,
-                           CommentRepository commentRepository
+                           CommentRepository commentRepository,
+                           ItemSearchEngine itemSearchEngine,
+                           ItemBookingPointers itemBookingPointers,
+                           RequestTime requestTime,
+                           Clock clock
     ) {
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.itemBookingPointers = itemBookingPointers;
+        this.requestTime = requestTime;
+        this.clock = clock;
     }
 
     @Override
@@ -60,11 +85,14 @@ public class ItemServiceImpl implements ItemService {
         Item item = ItemMapper.toItem(itemDto);
         item.setOwner(owner);
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
         return ItemMapper.toItemDto(item);
     }
 
+    //an approval or the roll-forward job may bump Item.version between the read and the commit
     @Override
     @Transactional
+    @RetryOnConflict
     public ItemDto update(Long userId, Long itemId, ItemDto itemDto)
             throws ItemNotFoundException, UserNotFoundException {
 
@@ -77,11 +105,13 @@ public class ItemServiceImpl implements ItemService {
         item.setOwner(owner);
 
         item = itemRepository.save(item);
+        itemSearchEngine.index(item);
 
         return ItemMapper.toItemDto(item);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemDto get(Long userId, Long itemId) throws ItemNotFoundException, UserNotFoundException {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
         Item repoItem = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("item not found"));
@@ -98,33 +128,20 @@ public class ItemServiceImpl implements ItemService {
 
         if (!user.getId().equals(owner.getId())) return itemDto;
 
-        Sort sortDesc = Sort.by(Sort.Direction.DESC, "end");
-        Optional<Booking> lastBooking = bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(
-                itemId, LocalDateTime.now(), Status.APPROVED, sortDesc);
-
-        itemDto.setLastBooking(lastBooking.isEmpty() ? null : LastBookingDto.builder()
-                .id(lastBooking.get().getId())
-                .bookerId(lastBooking.get().getBooker().getId())
-                .start(lastBooking.get().getStart())
-                .end(lastBooking.get().getEnd())
-                .build());
-
-        Sort sortAsc = Sort.by(Sort.Direction.ASC, "end");
-        Optional<Booking> nextBooking = bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(
-                itemId, LocalDateTime.now(), Status.APPROVED, sortAsc);
-
-        itemDto.setNextBooking(nextBooking.isEmpty() ? null : NextBookingDto.builder()
-                .id(nextBooking.get().getId())
-                .bookerId(nextBooking.get().getBooker().getId())
-                .start(nextBooking.get().getStart())
-                .end(nextBooking.get().getEnd())
-                .build());
+        //materialized pointers, the bookings table is only read while an item waits for its roll-forward
+        LocalDateTime now = requestTime.now();
+        Booking lastBooking = itemBookingPointers.last(repoItem, now);
+        itemDto.setLastBooking(lastBooking == null ? null : BookingMapper.toLastBookingDto(lastBooking));
+
+        Booking nextBooking = itemBookingPointers.next(repoItem, now);
+        itemDto.setNextBooking(nextBooking == null ? null : BookingMapper.toNextBookingDto(nextBooking));
 
         return itemDto;
     }
 
     //pagination
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> get(Long userId, Long from, Long size) throws UserNotFoundException, PaginationException {
         User owner = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
 
@@ -136,60 +153,62 @@ public class ItemServiceImpl implements ItemService {
                 .peek(itemDto -> itemDto.setOwner(owner.getId()))
                 .collect(Collectors.toList());
 
+        if (itemDtoList.isEmpty()) return Collections.emptyList();
+
+        List<Long> itemIdList = itemDtoList.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findAllByItem_IdIn(itemIdList).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        //pointers come with the items, only the ones waiting for their roll-forward go to the bookings table
+        LocalDateTime now = requestTime.now();
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        List<Long> staleIdList = new ArrayList<>();
+        for (Item item : repoItems) {
+            if (ItemBookingPointers.isStale(item, now)) {
+                staleIdList.add(item.getId());
+                continue;
+            }
+            if (item.getLastBooking() != null) lastBookings.put(item.getId(), item.getLastBooking());
+            if (item.getNextBooking() != null) nextBookings.put(item.getId(), item.getNextBooking());
+        }
+        if (!staleIdList.isEmpty()) {
+            bookingRepository.findLastApprovedByItemIds(staleIdList, now)
+                    .forEach(booking -> lastBookings.put(booking.getItem().getId(), booking));
+            bookingRepository.findNextApprovedByItemIds(staleIdList, now)
+                    .forEach(booking -> nextBookings.put(booking.getItem().getId(), booking));
+        }
+
         for (ItemDto itemDto : itemDtoList) {
+            itemDto.setComments(commentsByItem.getOrDefault(itemDto.getId(), Collections.emptyList()));
 
-            List<Comment> commentList = commentRepository.findAllByItem_Id(itemDto.getId());
-            List<CommentDto> commentDtos = commentList.stream()
-                    .map(CommentMapper::toCommentDto)
-                    .collect(Collectors.toList());
-            itemDto.setComments(commentDtos);
-
-            Sort sortDesc = Sort.by(Sort.Direction.DESC, "end");
-            Optional<Booking> lastBooking = bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(
-                    itemDto.getId(), LocalDateTime.now(), Status.APPROVED, sortDesc);
-
-            itemDto.setLastBooking(lastBooking.isEmpty() ? LastBookingDto.builder().build() : LastBookingDto.builder()
-                    .id(lastBooking.get().getId())
-                    .bookerId(lastBooking.get().getBooker().getId())
-                    .start(lastBooking.get().getStart())
-                    .end(lastBooking.get().getEnd())
-                    .build());
-
-            Sort sortAsc = Sort.by(Sort.Direction.ASC, "end");
-            Optional<Booking> nextBooking = bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(
-                    itemDto.getId(), LocalDateTime.now(), Status.APPROVED, sortAsc);
-
-            itemDto.setNextBooking(nextBooking.isEmpty() ? NextBookingDto.builder().build() : NextBookingDto.builder()
-                    .id(nextBooking.get().getId())
-                    .bookerId(nextBooking.get().getBooker().getId())
-                    .start(nextBooking.get().getStart())
-                    .end(nextBooking.get().getEnd())
-                    .build());
+            Booking lastBooking = lastBookings.get(itemDto.getId());
+            itemDto.setLastBooking(lastBooking == null ? null : BookingMapper.toLastBookingDto(lastBooking));
+
+            Booking nextBooking = nextBookings.get(itemDto.getId());
+            itemDto.setNextBooking(nextBooking == null ? null : BookingMapper.toNextBookingDto(nextBooking));
         }
 
-        itemDtoList.sort(Comparator.comparing(o -> o.getLastBooking().getStart(),
+        itemDtoList.sort(Comparator.comparing(o -> o.getLastBooking() == null ? null : o.getLastBooking().getStart(),
                 Comparator.nullsLast(Comparator.reverseOrder())));
 
-        for (ItemDto itemDto : itemDtoList) {
-            if (itemDto.getLastBooking().getBookerId() == null) {
-                itemDto.setLastBooking(null);
-            }
-            if (itemDto.getNextBooking().getBookerId() == null) {
-                itemDto.setNextBooking(null);
-            }
-        }
         return itemDtoList;
     }
 
     //pagination
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> search(Long userId, String text, Long from, Long size)
             throws UserNotFoundException, PaginationException {
         User repoUser = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
         if (text.isEmpty()) return Collections.emptyList();
 
         PageRequest pageRequest = PageRequest.of(from.intValue() / size.intValue(), size.intValue());
-        List<Item> searchItems = itemRepository.searchAvailableByText(text, pageRequest);
+        List<Item> searchItems = itemSearchEngine.search(text, pageRequest);
 
         List<ItemDto> searchItemDto = new ArrayList<>();
         for (Item item : searchItems) {
@@ -207,11 +226,13 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("item not found"));
         User author = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
         Sort sortDesc = Sort.by(Sort.Direction.DESC, "end");
+        //the exact clock, not the second-rounded request time: a booking that just ended can be commented on
+        LocalDateTime now = LocalDateTime.now(clock);
         Booking booking = bookingRepository.findTop1BookingByItem_IdAndBooker_IdAndEndIsBeforeAndStatusIs(
-                itemId, userId, LocalDateTime.now(), Status.APPROVED, sortDesc).orElseThrow(
+                itemId, userId, now, Status.APPROVED, sortDesc).orElseThrow(
                 () -> new InvalidCommentException("no booking for comment"));
 
-        Comment comment = CommentMapper.toComment(commentDto, item, author, LocalDateTime.now());
+        Comment comment = CommentMapper.toComment(commentDto, item, author, now);
         comment = commentRepository.save(comment);
         return CommentMapper.toCommentDto(comment);
     }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.mapper;
 
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemInfoView;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
 import java.util.Collections;
@@ -22,6 +23,19 @@ public class ItemMapper {
                 .build();
     }
 
+    public static ItemDto toItemDto(ItemInfoView itemView) {
+        return ItemDto.builder()
+                .id(itemView.getId())
+                .name(itemView.getName())
+                .description(itemView.getDescription())
+                .available(itemView.getAvailable())
+                .requestId(itemView.getRequestId())
+                .lastBooking(null)
+                .nextBooking(null)
+                .comments(Collections.emptyList())
+                .build();
+    }
+
     public static Item toItem(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
@@ -41,6 +55,9 @@ public class ItemMapper {
                 .available(itemDto.getAvailable() == null ? item.getAvailable() : itemDto.getAvailable())
                 .request(itemDto.getRequestId() == null ?
                         item.getRequest() : ItemRequest.builder().id(itemDto.getRequestId()).build())
+                .lastBooking(item.getLastBooking())
+                .nextBooking(item.getNextBooking())
+                .version(item.getVersion())
                 .build();
     }
 }
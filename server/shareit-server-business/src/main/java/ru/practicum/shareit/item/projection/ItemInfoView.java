@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//read-only row for the items answering a request, built by "select new" so no entity enters the persistence context
+@Getter
+@AllArgsConstructor
+public class ItemInfoView {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String description;
+
+    private final Boolean available;
+
+    private final Long requestId;
+}
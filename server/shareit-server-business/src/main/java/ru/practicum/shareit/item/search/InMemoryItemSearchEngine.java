@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//in-process trigram inverted index, meant for the single-instance H2 profile
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        postings.clear();
+        documents.clear();
+        itemRepository.findAll().forEach(item -> apply(document(item)));
+    }
+
+    //the text is taken now and applied once the saving transaction commits, a rollback leaves the index alone
+    @Override
+    public void index(Item item) {
+        Document document = document(item);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(document);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(document);
+            }
+        });
+    }
+
+    private synchronized void apply(Document document) {
+        Document previous = documents.remove(document.getId());
+        if (previous != null) {
+            for (String gram : grams(previous.getText())) {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) ids.remove(document.getId());
+            }
+        }
+        documents.put(document.getId(), document);
+        for (String gram : grams(document.getText())) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.getId());
+        }
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        String query = normalize(text);
+        List<Long> rankedIds = candidates(query).stream()
+                .map(documents::get)
+                .filter(Objects::nonNull)
+                .filter(Document::isAvailable)
+                .filter(document -> document.getText().contains(query))
+                .sorted(Comparator.comparingInt((Document document) -> document.rank(query))
+                        .thenComparing(Document::getId))
+                .skip(pageRequest.getOffset())
+                .limit(pageRequest.getPageSize())
+                .map(Document::getId)
+                .collect(Collectors.toList());
+        if (rankedIds.isEmpty()) return Collections.emptyList();
+
+        Map<Long, Item> items = itemRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    //intersection of the posting lists of every query trigram, all documents for queries shorter than a trigram
+    private Collection<Long> candidates(String query) {
+        Set<String> queryGrams = grams(query);
+        if (queryGrams.isEmpty()) return documents.keySet();
+        Set<Long> result = null;
+        for (String gram : queryGrams) {
+            Set<Long> ids = postings.getOrDefault(gram, Collections.emptySet());
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) break;
+        }
+        return result;
+    }
+
+    private static Document document(Item item) {
+        return new Document(item.getId(), normalize(item.getName()),
+                normalize(item.getDescription()), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase();
+    }
+
+    private static class Document {
+        private final Long id;
+        private final String name;
+        private final String text;
+        private final boolean available;
+
+        Document(Long id, String name, String description, boolean available) {
+            this.id = id;
+            this.name = name;
+            this.text = name + "\n" + description;
+            this.available = available;
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        boolean isAvailable() {
+            return available;
+        }
+
+        //lower is better: exact name, name prefix, name substring, description only
+        int rank(String query) {
+            if (name.equals(query)) return 0;
+            if (name.startsWith(query)) return 1;
+            if (name.contains(query)) return 2;
+            return 3;
+        }
+    }
+}
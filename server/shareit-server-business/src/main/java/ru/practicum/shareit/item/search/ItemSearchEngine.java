@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Backend for /items/search, selected by the shareit.search.engine property (jpa, postgres or memory).
+ */
+public interface ItemSearchEngine {
+
+    List<Item> search(String text, PageRequest pageRequest);
+
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpa", matchIfMissing = true)
+public class JpaItemSearchEngine implements ItemSearchEngine {
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    public JpaItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        return itemRepository.searchAvailableByText(text, pageRequest);
+    }
+}
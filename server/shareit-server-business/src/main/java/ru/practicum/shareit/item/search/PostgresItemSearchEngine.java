@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+//relies on the pg_trgm indexes from db/vendor/postgresql, results are ordered by trigram similarity
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    public PostgresItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, PageRequest pageRequest) {
+        return itemRepository.searchAvailableByTextRanked(text, pageRequest);
+    }
+}
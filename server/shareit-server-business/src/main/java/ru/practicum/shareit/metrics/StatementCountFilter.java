@@ -0,0 +1,51 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+//shareit.hibernate.statements per request, a request above the threshold is most likely an N+1
+@Slf4j
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    public StatementCountFilter(StatementCounter statementCounter, MeterRegistry meterRegistry, int warnThreshold) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        statementCounter.reset();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = statementCounter.get();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("shareit.hibernate.statements")
+                    .description("SQL statements prepared by Hibernate per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+            if (statements > warnThreshold) {
+                log.warn("{} {} ran {} SQL statements, over the threshold of {}",
+                        request.getMethod(), uri, statements, warnThreshold);
+            }
+        }
+    }
+}
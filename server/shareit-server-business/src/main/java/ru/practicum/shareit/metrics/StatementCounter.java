@@ -0,0 +1,23 @@
+package ru.practicum.shareit.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+//counts the SQL statements Hibernate prepares on the current thread, i.e. within the current request
+public class StatementCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    public void reset() {
+        count.get()[0] = 0;
+    }
+
+    public int get() {
+        return count.get()[0];
+    }
+}
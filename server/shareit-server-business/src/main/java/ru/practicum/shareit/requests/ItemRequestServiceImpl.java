@@ -1,14 +1,16 @@
 package ru.practicum.shareit.requests;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemInfoView;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.requests.mapper.ItemRequestMapper;
@@ -18,13 +20,15 @@ import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.utils.PageRequestManager;
 
-import javax.transaction.Transactional;
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("shareit.service")
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Autowired
@@ -36,20 +40,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Autowired
     private final ItemRepository itemRepository;
 
+    @Autowired
+    private final Clock clock;
+
     public ItemRequestServiceImpl(ItemRequestRepository itemRequestRepository,
                                   UserRepository userRepository,
-                                  ItemRepository itemRepository
+                                  ItemRepository itemRepository,
+                                  Clock clock
     ) {
         this.itemRequestRepository = itemRequestRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.clock = clock;
     }
 
     @Override
     @Transactional
     public ItemRequestDto create(Long userId, ItemRequestDto itemRequestDto) throws UserNotFoundException {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
-        itemRequestDto.setCreated(LocalDateTime.now());
+        itemRequestDto.setCreated(LocalDateTime.now(clock));
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, user);
         itemRequest = itemRequestRepository.save(itemRequest);
         return ItemRequestMapper.toItemRequestDto(itemRequest);
@@ -57,31 +66,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     //получить список своих запросов
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> get(Long userId) throws UserNotFoundException {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(userId);
         if (itemRequests.isEmpty()) return Collections.emptyList();
-        List<ItemRequestDto> itemRequestDtos = itemRequests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
-
-        List<Long> requestIdList = itemRequestDtos.stream()
-                .map(ItemRequestDto::getId)
-                .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAllByRequest_IdIn(requestIdList);
-
-        for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            List<Item> requestItems = items.stream()
-                    .filter(item -> item.getRequest().getId().equals(itemRequestDto.getId()))
-                    .collect(Collectors.toList());
-            if (!requestItems.isEmpty()) {
-                List<ItemDto> itemDtos = requestItems.stream()
-                        .map(ItemMapper::toItemDto)
-                        .collect(Collectors.toList());
-                itemRequestDto.setItems(itemDtos);
-            }
-        }
-        return itemRequestDtos;
+        return withItems(itemRequests);
     }
 
     //список запросов созданных другими пользователями
@@ -90,6 +80,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     //from - индекс первого элемента
     //size - количество элементов для отображения
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> get(Long userId, Long from, Long size) throws
             UserNotFoundException, PaginationException {
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
@@ -98,45 +89,38 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 from.intValue(), size.intValue(), Sort.Direction.DESC, "created");
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_IdIsNot(userId, pageRequest);
 
+        return withItems(itemRequests);
+    }
+
+    //получить запрос по айди (любой пользователь любой запрос)
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto get(Long userId, Long requestId) throws
+            UserNotFoundException, ItemRequestNotFoundException {
+        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
+        ItemRequest itemRequest = itemRequestRepository.findItemRequestById(requestId)
+                .orElseThrow(() -> new ItemRequestNotFoundException("request not found"));
+        return withItems(List.of(itemRequest)).get(0);
+    }
+
+    //one query for the items of all the requests, grouped by request id in a single pass
+    private List<ItemRequestDto> withItems(List<ItemRequest> itemRequests) {
         List<ItemRequestDto> itemRequestDtos = itemRequests.stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .collect(Collectors.toList());
+        if (itemRequestDtos.isEmpty()) return itemRequestDtos;
 
         List<Long> requestIdList = itemRequestDtos.stream()
                 .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
-        List<Item> items = itemRepository.findAllByRequest_IdIn(requestIdList);
+        Map<Long, List<ItemDto>> itemsByRequest = itemRepository.findViewsByRequestIds(requestIdList).stream()
+                .collect(Collectors.groupingBy(ItemInfoView::getRequestId,
+                        Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())));
 
         for (ItemRequestDto itemRequestDto : itemRequestDtos) {
-            List<Item> requestItems = items.stream()
-                    .filter(item -> item.getRequest().getId().equals(itemRequestDto.getId()))
-                    .collect(Collectors.toList());
-            if (!requestItems.isEmpty()) {
-                List<ItemDto> itemDtos = requestItems.stream()
-                        .map(ItemMapper::toItemDto)
-                        .collect(Collectors.toList());
-                itemRequestDto.setItems(itemDtos);
-            }
+            List<ItemDto> itemDtos = itemsByRequest.get(itemRequestDto.getId());
+            if (itemDtos != null) itemRequestDto.setItems(itemDtos);
         }
         return itemRequestDtos;
     }
-
-    //получить запрос по айди (любой пользователь любой запрос)
-    @Override
-    public ItemRequestDto get(Long userId, Long requestId) throws
-            UserNotFoundException, ItemRequestNotFoundException {
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
-        ItemRequest itemRequest = itemRequestRepository.findItemRequestById(requestId)
-                .orElseThrow(() -> new ItemRequestNotFoundException("request not found"));
-        ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
-
-        List<Item> items = itemRepository.findAllByRequest_Id(itemRequestDto.getId());
-        if (!items.isEmpty()) {
-            List<ItemDto> itemDtos = items.stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
-            itemRequestDto.setItems(itemDtos);
-        }
-        return itemRequestDto;
-    }
 }
@@ -0,0 +1,199 @@
+package ru.practicum.shareit.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.ApprovedIntervals;
+import ru.practicum.shareit.common.SeedVocabulary;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+//fills an empty database for load tests, run with shareit.seed.enabled=true (the "seed" profile)
+//users get ids 1..users, item names and descriptions use SeedVocabulary.SEARCH_WORDS so searches have hits
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.seed.enabled", havingValue = "true")
+@EnableConfigurationProperties(SeedProperties.class)
+public class DataSeeder implements ApplicationRunner {
+
+    @Autowired
+    private final SeedProperties properties;
+    @Autowired
+    private final TransactionTemplate transactionTemplate;
+    @Autowired
+    private final UserRepository userRepository;
+    @Autowired
+    private final ItemRequestRepository itemRequestRepository;
+    @Autowired
+    private final ItemRepository itemRepository;
+    @Autowired
+    private final BookingRepository bookingRepository;
+    @Autowired
+    private final CommentRepository commentRepository;
+    @Autowired
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final Random random;
+
+    public DataSeeder(SeedProperties properties, TransactionTemplate transactionTemplate,
+                      UserRepository userRepository, ItemRequestRepository itemRequestRepository,
+                      ItemRepository itemRepository, BookingRepository bookingRepository,
+                      CommentRepository commentRepository, ItemSearchEngine itemSearchEngine) {
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemSearchEngine = itemSearchEngine;
+        this.random = new Random(properties.getRandomSeed());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.count() > 0) {
+            log.info("seed skipped, the database already has users");
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int userCount = properties.getUsers();
+        int requestCount = (int) (userCount * properties.getRequestsPerUser());
+        int itemCount = userCount * properties.getItemsPerUser();
+
+        List<Long> userIds = seed("users", userCount, i -> User.builder()
+                .name("user" + i)
+                .email("user" + i + "@shareit.load")
+                .build(), userRepository::saveAll, User::getId);
+
+        List<Long> requestIds = seed("requests", requestCount, i -> ItemRequest.builder()
+                .description("need a " + word())
+                .requestor(userRepository.getReferenceById(pick(userIds)))
+                .created(now.minusMinutes(random.nextInt(525600)))
+                .build(), itemRequestRepository::saveAll, ItemRequest::getId);
+
+        List<Long> itemIds = seed("items", itemCount, i -> Item.builder()
+                .name(word() + " " + i)
+                .description("a good " + word() + " and a " + word())
+                .available(random.nextInt(10) != 0)
+                .owner(userRepository.getReferenceById(userIds.get(i % userIds.size())))
+                .request(!requestIds.isEmpty() && random.nextInt(3) == 0
+                        ? itemRequestRepository.getReferenceById(pick(requestIds)) : null)
+                .build(), items -> {
+                    List<Item> saved = itemRepository.saveAll(items);
+                    saved.forEach(itemSearchEngine::index);
+                    return saved;
+                }, Item::getId);
+
+        //item i belongs to user i % users, so the booker is picked among the other users
+        //approved bookings of an item never overlap (the exclusion constraint), a clashing one stays waiting
+        List<Booking> commentedBookings = new ArrayList<>();
+        Map<Integer, ApprovedIntervals> approvedByItem = new HashMap<>();
+        seed("bookings", properties.getBookings(), i -> {
+            int itemIndex = random.nextInt(itemIds.size());
+            int ownerIndex = itemIndex % userIds.size();
+            int bookerIndex = (ownerIndex + 1 + random.nextInt(Math.max(userIds.size() - 1, 1))) % userIds.size();
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365 * 2) - 24 * 365);
+            LocalDateTime end = start.plusHours(1 + random.nextInt(24 * 7));
+            Status status = status();
+            if (status == Status.APPROVED) {
+                ApprovedIntervals approved = approvedByItem.computeIfAbsent(itemIndex, index -> new ApprovedIntervals());
+                if (approved.overlaps(start, end)) {
+                    status = Status.WAITING;
+                } else {
+                    approved.add(start, end);
+                }
+            }
+            return Booking.builder()
+                    .start(start)
+                    .end(end)
+                    .item(itemRepository.getReferenceById(itemIds.get(itemIndex)))
+                    .booker(userRepository.getReferenceById(userIds.get(bookerIndex)))
+                    .status(status)
+                    .build();
+        }, bookings -> {
+            List<Booking> saved = bookingRepository.saveAll(bookings);
+            saved.stream()
+                    .filter(booking -> booking.getStatus() == Status.APPROVED && booking.getEnd().isBefore(now))
+                    .filter(booking -> random.nextDouble() < properties.getCommentedShare())
+                    .forEach(commentedBookings::add);
+            return saved;
+        }, Booking::getId);
+
+        seed("comments", commentedBookings.size(), i -> {
+            Booking booking = commentedBookings.get(i);
+            return Comment.builder()
+                    .text("the " + word() + " was fine")
+                    .item(itemRepository.getReferenceById(booking.getItem().getId()))
+                    .author(userRepository.getReferenceById(booking.getBooker().getId()))
+                    .created(booking.getEnd().plusHours(1))
+                    .build();
+        }, commentRepository::saveAll, Comment::getId);
+
+        //bookings went in through the repository, so the item pointers are rebuilt in one statement
+        Integer items = transactionTemplate.execute(status -> itemRepository.rebuildBookingPointers(now));
+        log.info("rebuilt booking pointers of {} items", items);
+    }
+
+    //saves count entities chunk by chunk, one transaction per chunk keeps the persistence context small
+    private <T> List<Long> seed(String name, int count, IntFunction<T> factory,
+                                Function<List<T>, List<T>> saveAll,
+                                Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += properties.getChunkSize()) {
+            int to = Math.min(from + properties.getChunkSize(), count);
+            int chunkFrom = from;
+            List<Long> chunkIds = transactionTemplate.execute(status -> {
+                List<T> chunk = new ArrayList<>(to - chunkFrom);
+                for (int i = chunkFrom; i < to; i++) {
+                    chunk.add(factory.apply(i));
+                }
+                List<Long> savedIds = new ArrayList<>(chunk.size());
+                saveAll.apply(chunk).forEach(entity -> savedIds.add(id.apply(entity)));
+                return savedIds;
+            });
+            ids.addAll(chunkIds);
+        }
+        log.info("seeded {} {}", ids.size(), name);
+        return ids;
+    }
+
+    private String word() {
+        return SeedVocabulary.SEARCH_WORDS.get(random.nextInt(SeedVocabulary.SEARCH_WORDS.size()));
+    }
+
+    private Long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private Status status() {
+        int roll = random.nextInt(10);
+        if (roll < 7) return Status.APPROVED;
+        if (roll < 9) return Status.WAITING;
+        return Status.REJECTED;
+    }
+}
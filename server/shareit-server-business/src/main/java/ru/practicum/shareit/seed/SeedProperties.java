@@ -0,0 +1,31 @@
+package ru.practicum.shareit.seed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+//shareit.seed.*, the defaults give a quick local dataset, load runs scale them up
+@Getter
+@Setter
+@ConfigurationProperties("shareit.seed")
+public class SeedProperties {
+
+    private boolean enabled = false;
+
+    private int users = 1000;
+
+    private int itemsPerUser = 2;
+
+    //share of users that posted a request, a third of the items answer one
+    private double requestsPerUser = 0.2;
+
+    private int bookings = 10000;
+
+    //share of past approved bookings that got a comment
+    private double commentedShare = 0.3;
+
+    private int chunkSize = 1000;
+
+    //same seed, same dataset
+    private long randomSeed = 42L;
+}
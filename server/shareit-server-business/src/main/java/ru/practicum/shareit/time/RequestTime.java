@@ -0,0 +1,38 @@
+package ru.practicum.shareit.time;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One "now" per request, truncated to the second: every time-based query of a request sees the same
+ * instant, and repeated queries within a second bind identical parameters. Outside of a request
+ * (schedulers, seeding, tests) every call reads the clock.
+ */
+public class RequestTime {
+
+    private final Clock clock;
+
+    private final ThreadLocal<LocalDateTime> snapshot = new ThreadLocal<>();
+
+    public RequestTime(Clock clock) {
+        this.clock = clock;
+    }
+
+    public LocalDateTime now() {
+        LocalDateTime now = snapshot.get();
+        return now != null ? now : bucket();
+    }
+
+    public void open() {
+        snapshot.set(bucket());
+    }
+
+    public void close() {
+        snapshot.remove();
+    }
+
+    private LocalDateTime bucket() {
+        return LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+    }
+}
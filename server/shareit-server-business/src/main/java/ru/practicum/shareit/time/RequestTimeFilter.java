@@ -0,0 +1,30 @@
+package ru.practicum.shareit.time;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+//takes the RequestTime snapshot for the lifetime of a request
+public class RequestTimeFilter extends OncePerRequestFilter {
+
+    private final RequestTime requestTime;
+
+    public RequestTimeFilter(RequestTime requestTime) {
+        this.requestTime = requestTime;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        requestTime.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            requestTime.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.time;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+//a single Clock for the services, replaceable by a fixed one in tests
+@Configuration
+public class TimeConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    @Bean
+    public RequestTime requestTime(Clock clock) {
+        return new RequestTime(clock);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestTimeFilter> requestTimeFilter(RequestTime requestTime) {
+        return new FilterRegistrationBean<>(new RequestTimeFilter(requestTime));
+    }
+}
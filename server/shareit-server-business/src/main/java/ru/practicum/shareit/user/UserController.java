@@ -1,12 +1,19 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.exception.ValidationException;
+import ru.practicum.shareit.utils.JsonStreamWriter;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,8 +23,12 @@ public class UserController {
     @Autowired
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    @Autowired
+    private final ObjectMapper objectMapper;
+
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -42,8 +53,21 @@ public class UserController {
         userService.delete(userId);
     }
 
+    //pagination
+    @GetMapping(params = "size")
+    public List<UserDto> get(@RequestParam(name = "from", defaultValue = "0") Long from,
+                             @RequestParam(name = "size") Long size) throws PaginationException {
+        return userService.get(from, size);
+    }
+
+    //the whole table is written out as it is read, a json array or application/x-ndjson when asked for
     @GetMapping
-    public List<UserDto> get() {
-        return userService.get();
+    public void get(@RequestHeader(name = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept,
+                    HttpServletResponse response) throws IOException {
+        boolean ndjson = JsonStreamWriter.acceptsNdjson(accept);
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        JsonStreamWriter users = new JsonStreamWriter(objectMapper, response.getOutputStream(), ndjson);
+        userService.stream(users::write);
+        users.close();
     }
 }
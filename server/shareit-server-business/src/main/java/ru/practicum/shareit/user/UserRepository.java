@@ -1,7 +1,27 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    List<User> findAllBy(Pageable pageable); //a page without the count query of findAll(Pageable)
+
+    //forward-only cursor, rows arrive fetch-size at a time
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select u from User as u order by u.id")
+    Stream<User> streamAllBy();
 }
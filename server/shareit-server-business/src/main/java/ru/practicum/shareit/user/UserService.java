@@ -1,11 +1,13 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.exception.ValidationException;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -17,5 +19,7 @@ public interface UserService {
 
     void delete(Long userId);
 
-    List<UserDto> get();
+    List<UserDto> get(Long from, Long size) throws PaginationException;
+
+    void stream(Consumer<UserDto> sink);
 }
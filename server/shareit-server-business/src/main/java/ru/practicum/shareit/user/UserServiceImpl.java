@@ -1,22 +1,38 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.DuplicateEmailException;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.exception.ValidationException;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageRequestManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("shareit.service")
 public class UserServiceImpl implements UserService {
     @Autowired
     private final UserRepository userRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public UserServiceImpl(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
@@ -40,6 +56,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto get(Long userId) throws UserNotFoundException {
         User repoUser = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("user not found"));
         return UserMapper.toUserDto(repoUser);
@@ -50,11 +67,28 @@ public class UserServiceImpl implements UserService {
         userRepository.deleteById(userId);
     }
 
+    //pagination
     @Override
-    public List<UserDto> get() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
+    @Transactional(readOnly = true)
+    public List<UserDto> get(Long from, Long size) throws PaginationException {
+        PageRequest pageRequest = PageRequestManager.form(
+                from.intValue(), size.intValue(), Sort.Direction.ASC, "id");
+        return userRepository.findAllBy(pageRequest).stream()
                 .map(UserMapper::toUserDto)
                 .collect(Collectors.toList());
     }
+
+    //the whole table one user at a time, each one is detached once handed over so the persistence context stays empty
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(Consumer<UserDto> sink) {
+        //a full scan stays out of the users L2 region, on the session since scrolled rows ignore a cacheMode hint
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        try (Stream<User> users = userRepository.streamAllBy()) {
+            users.forEach(user -> {
+                sink.accept(UserMapper.toUserDto(user));
+                entityManager.detach(user);
+            });
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+//writes values one at a time as a json array or as ndjson, jackson buffers and the container sends it out in chunks
+//nothing reaches the stream before the first value, an exception thrown earlier still gets its error status
+public class JsonStreamWriter {
+
+    private final ObjectWriter writer;
+
+    private final JsonGenerator json;
+
+    private final boolean ndjson;
+
+    private boolean started;
+
+    public JsonStreamWriter(ObjectMapper objectMapper, OutputStream out, boolean ndjson) throws IOException {
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.json = writer.createGenerator(out);
+        this.json.setRootValueSeparator(null);
+        this.ndjson = ndjson;
+    }
+
+    public static boolean acceptsNdjson(String accept) {
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    public void write(Object value) {
+        try {
+            start();
+            writer.writeValue(json, value);
+            if (ndjson) json.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //client gone, the read transaction rolls back
+        }
+    }
+
+    public void close() throws IOException {
+        start();
+        if (!ndjson) json.writeEndArray();
+        json.close();
+    }
+
+    private void start() throws IOException {
+        if (started) return;
+        started = true;
+        if (!ndjson) json.writeStartArray();
+    }
+}
@@ -6,7 +6,7 @@ import ru.practicum.shareit.common.PaginationException;
 
 public class PageRequestManager {
 
-    public static PageRequest form(int from, int size, Sort.Direction direction, String properties
+    public static PageRequest form(int from, int size, Sort.Direction direction, String... properties
     ) throws PaginationException {
         if (from < 0) throw new PaginationException("paging invalid");
         if (size <= 0) throw new PaginationException("paging invalid");
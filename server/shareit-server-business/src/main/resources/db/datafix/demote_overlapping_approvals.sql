@@ -0,0 +1,47 @@
+-- run by hand (psql -f) before V6 when it stops on overlapping approved bookings, never by Flyway:
+-- per item in (start_date, id) order an approved booking overlapping one kept earlier goes back to WAITING,
+-- so the owner can decide on it again; every changed booking is reported as a NOTICE
+DO $$
+DECLARE
+    b RECORD;
+    kept BIGINT;
+BEGIN
+    FOR b IN SELECT id, item_id, start_date, end_date
+             FROM bookings
+             WHERE status = 'APPROVED'
+             ORDER BY item_id, start_date, id
+    LOOP
+        SELECT k.id
+        INTO kept
+        FROM bookings AS k
+        WHERE k.item_id = b.item_id
+          AND k.status = 'APPROVED'
+          AND (k.start_date, k.id) < (b.start_date, b.id)
+          AND tsrange(k.start_date, k.end_date) && tsrange(b.start_date, b.end_date)
+        LIMIT 1;
+        IF kept IS NOT NULL THEN
+            UPDATE bookings SET status = 'WAITING' WHERE id = b.id;
+            RAISE NOTICE 'booking % of item % set back to WAITING, overlaps approved booking %', b.id, b.item_id, kept;
+        END IF;
+    END LOOP;
+END
+$$;
+
+-- pointers (V5) only follow approved bookings, the items that pointed at a demoted one are recomputed
+UPDATE items
+SET last_booking_id = (SELECT b.id
+                       FROM bookings AS b
+                       WHERE b.item_id = items.id
+                         AND b.status = 'APPROVED'
+                         AND b.end_date < LOCALTIMESTAMP
+                       ORDER BY b.end_date DESC
+                       LIMIT 1),
+    next_booking_id = (SELECT b.id
+                       FROM bookings AS b
+                       WHERE b.item_id = items.id
+                         AND b.status = 'APPROVED'
+                         AND b.end_date > LOCALTIMESTAMP
+                       ORDER BY b.end_date ASC
+                       LIMIT 1)
+WHERE last_booking_id IN (SELECT id FROM bookings WHERE status <> 'APPROVED')
+   OR next_booking_id IN (SELECT id FROM bookings WHERE status <> 'APPROVED');
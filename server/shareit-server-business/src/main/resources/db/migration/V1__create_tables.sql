@@ -1,5 +1,3 @@
-DROP TABLE IF EXISTS users, requests, items, bookings, comments CASCADE;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -50,4 +48,4 @@ CREATE TABLE IF NOT EXISTS comments
     create_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
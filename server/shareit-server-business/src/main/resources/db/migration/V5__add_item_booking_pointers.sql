@@ -0,0 +1,27 @@
+ALTER TABLE items ADD COLUMN IF NOT EXISTS last_booking_id BIGINT;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS next_booking_id BIGINT;
+
+ALTER TABLE items ADD CONSTRAINT fk_items_last_booking
+    FOREIGN KEY (last_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
+ALTER TABLE items ADD CONSTRAINT fk_items_next_booking
+    FOREIGN KEY (next_booking_id) REFERENCES bookings (id) ON DELETE SET NULL;
+
+CREATE INDEX IF NOT EXISTS idx_items_next_booking ON items (next_booking_id);
+
+UPDATE items
+SET last_booking_id = (SELECT b.id
+                       FROM bookings AS b
+                       WHERE b.item_id = items.id
+                         AND b.status = 'APPROVED'
+                         AND b.end_date < LOCALTIMESTAMP
+                       ORDER BY b.end_date DESC
+                       LIMIT 1),
+    next_booking_id = (SELECT b.id
+                       FROM bookings AS b
+                       WHERE b.item_id = items.id
+                         AND b.status = 'APPROVED'
+                         AND b.end_date > LOCALTIMESTAMP
+                       ORDER BY b.end_date ASC
+                       LIMIT 1);
@@ -0,0 +1,2 @@
+-- bookings ids come from a sequence handing out blocks of 50 (pooled-lo), so inserts can go out as jdbc batches
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
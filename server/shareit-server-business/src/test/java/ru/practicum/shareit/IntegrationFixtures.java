@@ -0,0 +1,70 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+//rows for integration tests sharing one context and database, emails are numbered so tests don't collide
+@Component
+public class IntegrationFixtures {
+
+    private static final AtomicLong sequence = new AtomicLong();
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    public IntegrationFixtures(UserRepository userRepository, ItemRepository itemRepository) {
+        this.userRepository = userRepository;
+        this.itemRepository = itemRepository;
+    }
+
+    public User user(String name) {
+        return userRepository.save(User.builder()
+                .name(name)
+                .email(name + "-" + sequence.incrementAndGet() + "@email.com")
+                .build());
+    }
+
+    public Item item(User owner) {
+        return item(owner, true);
+    }
+
+    public Item item(User owner, boolean available) {
+        return itemRepository.save(Item.builder()
+                .name("item")
+                .description("item desc")
+                .available(available)
+                .owner(owner)
+                .build());
+    }
+
+    public static BookingDto dto(Item item, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(end)
+                .build();
+    }
+
+    public static Booking waiting(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.exception.NotAvailableException;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.IntegrationFixtures;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static ru.practicum.shareit.IntegrationFixtures.dto;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingBatchIntegrationTest {
+
+    @Autowired
+    private final BookingService bookingService;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final IntegrationFixtures fixtures;
+
+    @Autowired
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void createBatchInsertsInJdbcBatches() throws Exception {
+        User owner = fixtures.user("batch-owner");
+        User booker = fixtures.user("batch-booker");
+        Item item = fixtures.item(owner);
+        Item unavailable = fixtures.item(owner, false);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1L);
+
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            bookingDtos.add(dto(item, start.plusDays(i), start.plusDays(i).plusHours(1L)));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BookingInfoDto> bookings = bookingService.create(booker.getId(), bookingDtos);
+
+        assertThat(bookings.size(), is(120));
+        assertThat(bookings.stream().map(BookingInfoDto::getId).distinct().count(), is(120L));
+        assertThat(bookings.get(119).getStart(), is(start.plusDays(119L)));
+        assertThat(bookings.get(0).getStatus(), is(Status.WAITING));
+        //120 inserts in batches of 50 plus a few sequence calls, not a statement per booking
+        assertThat(statistics.getPrepareStatementCount(), lessThan(20L));
+        assertThat(bookingRepository.findAllByItem_IdAndStatus(item.getId(), Status.WAITING).size(), is(120));
+
+        //one bad booking and nothing of the list is saved
+        bookingDtos.set(60, dto(unavailable, start, start.plusHours(1L)));
+        NotAvailableException notAvailableException = Assertions.assertThrows(NotAvailableException.class,
+                () -> bookingService.create(booker.getId(), bookingDtos));
+        assertThat(notAvailableException.getMessage(), is("item is not available"));
+        assertThat(bookingRepository.findAllByItem_IdAndStatus(item.getId(), Status.WAITING).size(), is(120));
+    }
+}
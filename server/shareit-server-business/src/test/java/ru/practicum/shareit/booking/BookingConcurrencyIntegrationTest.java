@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.IntegrationFixtures;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.booking.exception.InvalidStatusException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static ru.practicum.shareit.IntegrationFixtures.dto;
+
+//many threads released at once against the same rows, every call has to end in a business answer
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    @Autowired
+    private final BookingService bookingService;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final IntegrationFixtures fixtures;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void approveSameBookingConcurrently() throws Exception {
+        User owner = fixtures.user("same-owner");
+        User booker = fixtures.user("same-booker");
+        Item item = fixtures.item(owner);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1L);
+        Long bookingId = bookingService.create(booker.getId(), dto(item, start, start.plusDays(1L))).getId();
+
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            calls.add(() -> bookingService.approve(owner.getId(), bookingId, approved));
+        }
+        List<Object> results = runAtOnce(calls);
+
+        //one decision wins, everyone else finds the booking already decided
+        assertThat(count(results, Succeeded.class), is(1L));
+        assertThat(count(results, InvalidStatusException.class), is((long) THREADS - 1));
+        Booking booking = bookingRepository.findById(bookingId).get();
+        assertThat(booking.getStatus() == Status.WAITING, is(false));
+        assertThat(booking.getVersion(), is(1L));
+    }
+
+    @Test
+    void approveAndCreateOverlappingConcurrently() throws Exception {
+        User owner = fixtures.user("concurrent-owner");
+        User booker = fixtures.user("concurrent-booker");
+        Item item = fixtures.item(owner);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1L);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS / 2; i++) {
+            bookingIds.add(bookingService.create(booker.getId(),
+                    dto(item, start.plusHours(i), start.plusDays(1L).plusHours(i))).getId());
+        }
+
+        List<Callable<Object>> calls = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            calls.add(() -> bookingService.approve(owner.getId(), bookingId, true));
+        }
+        for (int i = 0; i < THREADS / 2; i++) {
+            LocalDateTime created = start.plusMinutes(10L * i);
+            calls.add(() -> bookingService.create(booker.getId(), dto(item, created, created.plusHours(2L))));
+        }
+        List<Object> results = runAtOnce(calls);
+
+        //the approvals all overlap each other, so exactly one of them gets in
+        List<Object> approvals = results.subList(0, bookingIds.size());
+        assertThat(count(approvals, Succeeded.class), is(1L));
+        assertThat(count(approvals, BookingOverlapException.class), is((long) bookingIds.size() - 1));
+        List<Object> creations = results.subList(bookingIds.size(), results.size());
+        assertThat(count(creations, Succeeded.class) + count(creations, BookingOverlapException.class),
+                is((long) creations.size()));
+
+        List<Booking> approved = bookingRepository.findAllByItem_IdAndStatus(item.getId(), Status.APPROVED);
+        assertThat(approved.size(), is(1));
+        assertThat(bookingRepository.findAll().stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> booking.getStatus() == Status.WAITING)
+                .count(), is((long) bookingIds.size() - 1 + count(creations, Succeeded.class)));
+    }
+
+    //releases every call at the same moment and collects what each returned or threw
+    private List<Object> runAtOnce(List<Callable<Object>> calls) throws Exception {
+        CountDownLatch ready = new CountDownLatch(calls.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Callable<Object> call : calls) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    call.call();
+                    return new Succeeded();
+                } catch (Exception e) {
+                    return e;
+                }
+            }));
+        }
+        ready.await(10, TimeUnit.SECONDS);
+        go.countDown();
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    private static long count(List<Object> results, Class<?> type) {
+        List<Object> unexpected = results.stream()
+                .filter(result -> !(result instanceof Succeeded))
+                .filter(result -> !(result instanceof InvalidStatusException))
+                .filter(result -> !(result instanceof BookingOverlapException))
+                .collect(Collectors.toList());
+        assertThat(unexpected.toString(), unexpected.isEmpty(), is(true));
+        return results.stream().filter(type::isInstance).count();
+    }
+
+    private static class Succeeded {
+    }
+}
@@ -11,18 +11,28 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.query.BookingCursor;
+import ru.practicum.shareit.booking.query.BookingRole;
 import ru.practicum.shareit.common.Status;
 import ru.practicum.shareit.item.dto.ItemInfoDto;
 import ru.practicum.shareit.user.dto.UserInfoDto;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -112,6 +122,23 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status", is(bookingInfoDto.getStatus().toString())));
     }
 
+    @Test
+    void createBatch() throws Exception {
+        when(bookingService.create(1L, List.of(bookingDto, bookingDto)))
+                .thenReturn(List.of(bookingInfoDto, bookingInfoDto));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[1].id", is(bookingInfoDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].status", is(bookingInfoDto.getStatus().toString())));
+    }
+
     @Test
     void approve() throws Exception {
         bookingInfoDto.setStatus(Status.APPROVED);
@@ -189,4 +216,64 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].booker.id", is(bookingInfoDto.getBooker().getId()), Long.class))
                 .andExpect(jsonPath("$[0].status", is(bookingInfoDto.getStatus().toString())));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllAfter() throws Exception {
+        when(bookingService.getAfter(1L, "ALL", "", 1L))
+                .thenReturn(List.of(bookingInfoDto));
+
+        String nextCursor = new BookingCursor(bookingInfoDto.getStart(), bookingInfoDto.getId()).encode();
+
+        mvc.perform(get("/bookings?state=ALL&cursor=&size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER, nextCursor))
+                .andExpect(jsonPath("$[0].id", is(bookingInfoDto.getId()), Long.class));
+
+        when(bookingService.getByOwnerAfter(1L, "ALL", nextCursor, 10L))
+                .thenReturn(List.of(bookingInfoDto));
+
+        mvc.perform(get("/bookings/owner?state=ALL&cursor=" + nextCursor + "&size=10")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].id", is(bookingInfoDto.getId()), Long.class));
+    }
+
+    @Test
+    void export() throws Exception {
+        BookingInfoDto approved = BookingInfoDto.builder()
+                .id(2L)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+        doAnswer(invocation -> {
+            Consumer<BookingInfoDto> sink = invocation.getArgument(2);
+            sink.accept(bookingInfoDto);
+            sink.accept(approved);
+            return null;
+        }).when(bookingService).export(eq(1L), eq(BookingRole.OWNER), any());
+
+        mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(bookingInfoDto) + "\n" +
+                        mapper.writeValueAsString(approved) + "\n"));
+    }
+
+    @Test
+    void exportUnknownUser() throws Exception {
+        doThrow(new UserNotFoundException("user not found"))
+                .when(bookingService).export(eq(2L), eq(BookingRole.BOOKER), any());
+
+        mvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.IntegrationFixtures;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static ru.practicum.shareit.IntegrationFixtures.dto;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingOverlapIntegrationTest {
+
+    @Autowired
+    private final BookingService bookingService;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final IntegrationFixtures fixtures;
+
+    @Test
+    void rejectOverlappingBookings() throws Exception {
+        User owner = fixtures.user("overlap-owner");
+        User booker = fixtures.user("overlap-booker");
+        Item item = fixtures.item(owner);
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1L);
+
+        //waiting bookings may overlap each other
+        BookingInfoDto first = bookingService.create(booker.getId(), dto(item, start, start.plusDays(2L)));
+        BookingInfoDto second = bookingService.create(booker.getId(), dto(item, start.plusDays(1L), start.plusDays(3L)));
+
+        bookingService.approve(owner.getId(), first.getId(), true);
+
+        BookingOverlapException bookingOverlapException = Assertions.assertThrows(BookingOverlapException.class,
+                () -> bookingService.approve(owner.getId(), second.getId(), true));
+        assertThat(bookingOverlapException.getMessage(), is("booking overlaps"));
+        assertThat(bookingRepository.findById(second.getId()).get().getStatus(), is(Status.WAITING));
+
+        bookingOverlapException = Assertions.assertThrows(BookingOverlapException.class,
+                () -> bookingService.create(booker.getId(), dto(item, start.minusHours(1L), start.plusHours(1L))));
+        assertThat(bookingOverlapException.getMessage(), is("booking overlaps"));
+
+        //rejecting is always allowed, and a booking right after the approved one fits
+        bookingService.approve(owner.getId(), second.getId(), false);
+        BookingInfoDto third = bookingService.create(booker.getId(), dto(item, start.plusDays(2L), start.plusDays(3L)));
+        assertThat(bookingService.approve(owner.getId(), third.getId(), true).getStatus(), is(Status.APPROVED));
+    }
+}
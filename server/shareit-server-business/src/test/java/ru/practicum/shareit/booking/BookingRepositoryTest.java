@@ -0,0 +1,284 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.booking.query.BookingCursor;
+import ru.practicum.shareit.booking.query.BookingRole;
+import ru.practicum.shareit.booking.query.BookingSpecifications;
+import ru.practicum.shareit.common.State;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@DataJpaTest
+class BookingRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Test
+    void findViewsAfterCursor() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        Booking first = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        Booking second = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(2L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        Booking third = bookingRepository.save(Booking.builder()
+                .start(start.minusHours(1L))
+                .end(start.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+        List<BookingInfoView> bookings = bookingRepository.findViews(
+                Specification.where(BookingSpecifications.ofRole(BookingRole.BOOKER, booker.getId()))
+                        .and(BookingSpecifications.after(new BookingCursor(second.getStart(), second.getId()))),
+                pageRequest);
+        assertThat(bookings.size(), is(2));
+        assertThat(bookings.get(0).getId(), is(first.getId()));
+        assertThat(bookings.get(1).getId(), is(third.getId()));
+
+        bookings = bookingRepository.findViews(
+                Specification.where(BookingSpecifications.ofRole(BookingRole.OWNER, owner.getId()))
+                        .and(BookingSpecifications.after(new BookingCursor(first.getStart(), first.getId()))),
+                pageRequest);
+        assertThat(bookings.size(), is(1));
+        assertThat(bookings.get(0).getId(), is(third.getId()));
+    }
+
+    @Test
+    void listingsSelectViewsOnly() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookingInfoView> bookings = bookingRepository.findViews(
+                BookingSpecifications.ofRole(BookingRole.BOOKER, booker.getId()),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+        assertThat(bookings.size(), is(1));
+        assertThat(bookings.get(0).getItemId(), is(item.getId()));
+        assertThat(bookings.get(0).getItemName(), is("name"));
+        assertThat(bookings.get(0).getBookerId(), is(booker.getId()));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount(), is(0));
+
+        Booking booking = bookingRepository.findById(bookings.get(0).getId()).orElseThrow();
+        assertThat(Hibernate.isInitialized(booking.getItem()), is(true));
+        assertThat(Hibernate.isInitialized(booking.getBooker()), is(false));
+    }
+
+    @Test
+    void findViewsByRoleAndState() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(2L))
+                .end(now.minusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        Booking current = bookingRepository.save(Booking.builder()
+                .start(now.minusDays(1L))
+                .end(now.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.REJECTED)
+                .build());
+        Booking future = bookingRepository.save(Booking.builder()
+                .start(now.plusDays(1L))
+                .end(now.plusDays(2L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+
+        Map<State, List<Long>> expected = Map.of(
+                State.ALL, List.of(future.getId(), current.getId(), past.getId()),
+                State.CURRENT, List.of(current.getId()),
+                State.PAST, List.of(past.getId()),
+                State.FUTURE, List.of(future.getId()),
+                State.WAITING, List.of(future.getId()),
+                State.REJECTED, List.of(current.getId()));
+        for (BookingRole role : BookingRole.values()) {
+            Long userId = role == BookingRole.BOOKER ? booker.getId() : owner.getId();
+            for (State state : State.values()) {
+                List<Long> ids = bookingRepository.findViews(
+                                Specification.where(BookingSpecifications.ofRole(role, userId))
+                                        .and(BookingSpecifications.inState(state, now)),
+                                pageRequest).stream()
+                        .map(BookingInfoView::getId)
+                        .collect(Collectors.toList());
+                assertThat(role + " " + state, ids, is(expected.get(state)));
+            }
+        }
+
+        List<BookingInfoView> bookings = bookingRepository.findViews(
+                BookingSpecifications.ofRole(BookingRole.OWNER, booker.getId()), pageRequest);
+        assertThat(bookings.isEmpty(), is(true));
+    }
+
+    @Test
+    void findViewsReusesQueryPlan() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start"));
+        LocalDateTime now = LocalDateTime.now();
+
+        bookingRepository.findViews(Specification.where(BookingSpecifications.ofRole(BookingRole.OWNER, 1L))
+                .and(BookingSpecifications.inState(State.CURRENT, now)), pageRequest);
+        long hits = statistics.getQueryPlanCacheHitCount();
+        bookingRepository.findViews(Specification.where(BookingSpecifications.ofRole(BookingRole.OWNER, 2L))
+                .and(BookingSpecifications.inState(State.CURRENT, now.plusSeconds(1L))), pageRequest);
+        assertThat(statistics.getQueryPlanCacheHitCount(), is(hits + 1));
+    }
+
+    @Test
+    void streamViewsByBookerAndOwner() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@email.com")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@email.com")
+                .build());
+        User other = userRepository.save(User.builder()
+                .name("other")
+                .email("other@email.com")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1L).withNano(0);
+        Booking earlier = bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build());
+        Booking later = bookingRepository.save(Booking.builder()
+                .start(start.plusDays(2L))
+                .end(start.plusDays(3L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build());
+        Booking others = bookingRepository.save(Booking.builder()
+                .start(start.plusDays(4L))
+                .end(start.plusDays(5L))
+                .item(item)
+                .booker(other)
+                .status(Status.REJECTED)
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<BookingInfoView> bookings = bookingRepository.streamViewsByBooker(booker.getId())) {
+            assertThat(bookings.map(BookingInfoView::getId).collect(Collectors.toList()),
+                    is(List.of(later.getId(), earlier.getId())));
+        }
+        try (Stream<BookingInfoView> bookings = bookingRepository.streamViewsByOwner(owner.getId())) {
+            assertThat(bookings.map(BookingInfoView::getId).collect(Collectors.toList()),
+                    is(List.of(others.getId(), later.getId(), earlier.getId())));
+        }
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount(), is(0));
+    }
+}
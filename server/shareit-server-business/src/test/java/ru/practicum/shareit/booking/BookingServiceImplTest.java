@@ -3,19 +3,27 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingInfoDto;
 import ru.practicum.shareit.booking.exception.BookingNotFoundException;
+import ru.practicum.shareit.booking.exception.BookingOverlapException;
 import ru.practicum.shareit.booking.exception.InvalidDateTimeException;
 import ru.practicum.shareit.booking.exception.InvalidStatusException;
 import ru.practicum.shareit.booking.exception.NotAvailableException;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.booking.query.BookingCursor;
+import ru.practicum.shareit.booking.query.BookingRole;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.ItemBookingPointers;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -23,15 +31,20 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -50,6 +63,12 @@ class BookingServiceImplTest {
     @MockBean
     private final BookingRepository bookingRepository;
 
+    @MockBean
+    private final ItemBookingPointers itemBookingPointers;
+
+    @MockBean
+    private final BookingOverlapGuard bookingOverlapGuard;
+
     @Test
     void create() throws Exception {
         LocalDateTime start = LocalDateTime.now().plusDays(1L);
@@ -100,6 +119,57 @@ class BookingServiceImplTest {
         assertThat(bookingInfoDto, is(notNullValue()));
     }
 
+    @Test
+    void createBatch() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+
+        User owner = User.builder()
+                .id(1L)
+                .name("user1")
+                .email("user1@email.com")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+        User booker = User.builder()
+                .id(3L)
+                .name("user3")
+                .email("user3@email.com")
+                .build();
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(item));
+        when(bookingRepository.saveAll(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BookingDto> bookingDtos = List.of(
+                BookingDto.builder().start(start).end(start.plusDays(1L)).itemId(1L).build(),
+                BookingDto.builder().start(start.plusDays(2L)).end(start.plusDays(3L)).itemId(1L).build());
+
+        List<BookingInfoDto> bookings = bookingService.create(3L, bookingDtos);
+        assertThat(bookings.size(), is(2));
+        assertThat(bookings.get(1).getStart(), is(start.plusDays(2L)));
+        assertThat(bookings.get(1).getStatus(), is(Status.WAITING));
+        verify(itemRepository, times(1)).findAllById(any());
+
+        //an item that is not there fails the whole list before anything is saved
+        List<BookingDto> withMissingItem = List.of(
+                BookingDto.builder().start(start).end(start.plusDays(1L)).itemId(1L).build(),
+                BookingDto.builder().start(start).end(start.plusDays(1L)).itemId(2L).build());
+        when(itemRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(item));
+
+        final ItemNotFoundException exception = Assertions.assertThrows(ItemNotFoundException.class,
+                () -> bookingService.create(3L, withMissingItem));
+        assertThat(exception.getMessage(), is("item not found"));
+        verify(bookingRepository, times(1)).saveAll(any());
+    }
+
     @Test
     void throwItemNotFoundException() {
         LocalDateTime start = LocalDateTime.now().plusDays(1L);
@@ -296,8 +366,10 @@ class BookingServiceImplTest {
 
         when(bookingRepository.findById(1L))
                 .thenReturn(Optional.of(booking));
+        when(bookingOverlapGuard.reserve(any()))
+                .thenReturn(true);
 
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenReturn(booking);
 
         BookingInfoDto bookingInfoDto = bookingService.approve(1L, 1L, true);
@@ -310,7 +382,7 @@ class BookingServiceImplTest {
         booking.setStatus(Status.WAITING);
         when(bookingRepository.findById(1L))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenAnswer(
                         invocation -> {
                             Booking invoc = invocation.getArgument(0, Booking.class);
@@ -325,7 +397,7 @@ class BookingServiceImplTest {
         booking.setStatus(Status.WAITING);
         when(bookingRepository.findById(1L))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenAnswer(
                         invocation -> {
                             Booking invoc = invocation.getArgument(0, Booking.class);
@@ -403,6 +475,167 @@ class BookingServiceImplTest {
 
     }
 
+    @Test
+    void throwBookingOverlapException() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        LocalDateTime end = LocalDateTime.now().plusDays(2L);
+
+        User owner = User.builder()
+                .id(1L)
+                .name("user1")
+                .email("user1@email.com")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+        User booker = User.builder()
+                .id(3L)
+                .name("user3")
+                .email("user3@email.com")
+                .build();
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build();
+
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker));
+        when(bookingRepository.findById(1L))
+                .thenReturn(Optional.of(booking));
+        when(bookingOverlapGuard.overlapsApproved(any(), any(), any()))
+                .thenReturn(true);
+        when(bookingOverlapGuard.reserve(any()))
+                .thenReturn(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, Booking.class));
+
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(1L)
+                .start(start)
+                .end(end)
+                .build();
+        BookingOverlapException bookingOverlapException = Assertions.assertThrows(BookingOverlapException.class,
+                () -> bookingService.create(3L, bookingDto));
+        assertThat(bookingOverlapException.getMessage(), is("booking overlaps"));
+
+        bookingOverlapException = Assertions.assertThrows(BookingOverlapException.class,
+                () -> bookingService.approve(1L, 1L, true));
+        assertThat(bookingOverlapException.getMessage(), is("booking overlaps"));
+    }
+
+    @Test
+    void approveRetriesOnConflict() throws Exception {
+        User owner = User.builder()
+                .id(1L)
+                .name("user1")
+                .email("user1@email.com")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+        User booker = User.builder()
+                .id(3L)
+                .name("user3")
+                .email("user3@email.com")
+                .build();
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .item(item)
+                .booker(booker)
+                .status(Status.WAITING)
+                .build();
+
+        when(bookingRepository.findById(1L))
+                .thenReturn(Optional.of(booking));
+        when(bookingOverlapGuard.reserve(any()))
+                .thenReturn(true);
+        //the first attempt loses the version check, the second one goes through
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    booking.setStatus(Status.WAITING);
+                    throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+                })
+                .thenReturn(booking);
+
+        BookingInfoDto bookingInfoDto = bookingService.approve(1L, 1L, true);
+        assertThat(bookingInfoDto.getStatus(), is(Status.APPROVED));
+        verify(bookingRepository, times(2)).findById(1L);
+
+        //a conflict on every attempt is given up on
+        booking.setStatus(Status.WAITING);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    booking.setStatus(Status.WAITING);
+                    throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+                });
+        Assertions.assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> bookingService.approve(1L, 1L, true));
+    }
+
+    @Test
+    void approveTranslatesOnlyOverlapViolations() throws Exception {
+        User owner = User.builder()
+                .id(1L)
+                .name("user1")
+                .email("user1@email.com")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusDays(1L))
+                .end(LocalDateTime.now().plusDays(2L))
+                .item(item)
+                .booker(User.builder().id(3L).build())
+                .status(Status.WAITING)
+                .build();
+        when(bookingRepository.findById(1L))
+                .thenReturn(Optional.of(booking));
+
+        //the exclusion constraint, hibernate leaves its name out
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    booking.setStatus(Status.WAITING);
+                    throw new DataIntegrityViolationException("could not execute statement",
+                            new ConstraintViolationException("could not execute statement",
+                                    new SQLException("conflicting key value violates exclusion constraint",
+                                            "23P01"), null));
+                });
+        Assertions.assertThrows(BookingOverlapException.class, () -> bookingService.approve(1L, 1L, true));
+
+        //any other violation isn't an overlap
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenAnswer(invocation -> {
+                    booking.setStatus(Status.WAITING);
+                    throw new DataIntegrityViolationException("could not execute statement",
+                            new ConstraintViolationException("could not execute statement",
+                                    new SQLException("null value in column violates not-null constraint",
+                                            "23502"), "end_date"));
+                });
+        Assertions.assertThrows(DataIntegrityViolationException.class, () -> bookingService.approve(1L, 1L, true));
+    }
+
     @Test
     void getBooking() throws Exception {
         LocalDateTime start = LocalDateTime.now().plusDays(1L);
@@ -481,8 +714,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByBooker_Id(any(), any()))
-                .thenReturn(List.of(booking1));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking1)));
         List<BookingInfoDto> bookingInfoDtoList = bookingService.get(3L, "ALL", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -496,8 +729,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByBooker_IdAndEndIsBefore(any(), any(), any()))
-                .thenReturn(List.of(booking2));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking2)));
         bookingInfoDtoList = bookingService.get(3L, "PAST", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -511,8 +744,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByBooker_IdAndStartIsAfter(any(), any(), any()))
-                .thenReturn(List.of(booking3));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking3)));
         bookingInfoDtoList = bookingService.get(3L, "FUTURE", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -526,8 +759,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByBooker_IdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
-                .thenReturn(List.of(booking4));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking4)));
         bookingInfoDtoList = bookingService.get(3L, "CURRENT", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -542,24 +775,6 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByBooker_IdAndStatus(any(Long.class), any(Status.class), any(PageRequest.class)))
-                .thenAnswer(
-                        invocation -> {
-                            Long userId = invocation.getArgument(0, Long.class);
-                            Status status = invocation.getArgument(1, Status.class);
-                            if (status.equals(Status.WAITING) && userId.equals(3L)) {
-                                booking5.setStatus(Status.WAITING);
-                                return List.of(booking5);
-                            }
-                            if (status.equals(Status.REJECTED) && userId.equals(3L)) {
-                                booking5.setStatus(Status.REJECTED);
-                                return List.of(booking5);
-                            }
-                            return Collections.emptyList();
-                        }
-
-                );
-
         User booker6 = User.builder()
                 .id(6L)
                 .name("user6")
@@ -569,14 +784,22 @@ class BookingServiceImplTest {
         when(userRepository.findById(6L))
                 .thenReturn(Optional.of(booker6));
 
+        booking5.setStatus(Status.WAITING);
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking5)));
         bookingInfoDtoList = bookingService.get(3L, "WAITING", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.get(0).getStatus(), is(Status.WAITING));
 
+        booking5.setStatus(Status.REJECTED);
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking5)));
         bookingInfoDtoList = bookingService.get(3L, "REJECTED", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.get(0).getStatus(), is(Status.REJECTED));
 
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(Collections.emptyList());
         bookingInfoDtoList = bookingService.get(6L, "WAITING", 0L, 10L);
         Assertions.assertTrue(bookingInfoDtoList.isEmpty());
     }
@@ -647,8 +870,8 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItem_Owner_Id(any(), any()))
-                .thenReturn(List.of(booking1));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking1)));
 
         List<BookingInfoDto> bookingInfoDtoList = bookingService.getByOwner(1L, "ALL", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
@@ -663,8 +886,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByItem_Owner_IdAndEndIsBefore(any(), any(), any()))
-                .thenReturn(List.of(booking2));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking2)));
         bookingInfoDtoList = bookingService.getByOwner(1L, "PAST", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -678,8 +901,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByItem_Owner_IdAndStartIsAfter(any(), any(), any()))
-                .thenReturn(List.of(booking3));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking3)));
         bookingInfoDtoList = bookingService.getByOwner(1L, "FUTURE", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -693,8 +916,8 @@ class BookingServiceImplTest {
                 .booker(booker)
                 .status(Status.APPROVED)
                 .build();
-        when(bookingRepository.findAllByItem_Owner_IdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any()))
-                .thenReturn(List.of(booking4));
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking4)));
         bookingInfoDtoList = bookingService.getByOwner(1L, "CURRENT", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
 
@@ -709,24 +932,6 @@ class BookingServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingRepository.findAllByItem_Owner_IdAndStatus(any(Long.class), any(Status.class), any(PageRequest.class)))
-                .thenAnswer(
-                        invocation -> {
-                            Long userId = invocation.getArgument(0, Long.class);
-                            Status status = invocation.getArgument(1, Status.class);
-                            if (status.equals(Status.WAITING) && userId.equals(1L)) {
-                                booking5.setStatus(Status.WAITING);
-                                return List.of(booking5);
-                            }
-                            if (status.equals(Status.REJECTED) && userId.equals(1L)) {
-                                booking5.setStatus(Status.REJECTED);
-                                return List.of(booking5);
-                            }
-                            return Collections.emptyList();
-                        }
-
-                );
-
         User booker6 = User.builder()
                 .id(6L)
                 .name("user6")
@@ -736,15 +941,121 @@ class BookingServiceImplTest {
         when(userRepository.findById(6L))
                 .thenReturn(Optional.of(booker6));
 
+        booking5.setStatus(Status.WAITING);
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking5)));
         bookingInfoDtoList = bookingService.getByOwner(1L, "WAITING", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.get(0).getStatus(), is(Status.WAITING));
 
+        booking5.setStatus(Status.REJECTED);
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking5)));
         bookingInfoDtoList = bookingService.getByOwner(1L, "REJECTED", 0L, 10L);
         Assertions.assertFalse(bookingInfoDtoList.isEmpty());
         assertThat(bookingInfoDtoList.get(0).getStatus(), is(Status.REJECTED));
 
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(Collections.emptyList());
         bookingInfoDtoList = bookingService.getByOwner(6L, "WAITING", 0L, 10L);
         Assertions.assertTrue(bookingInfoDtoList.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAfter() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        LocalDateTime end = LocalDateTime.now().plusDays(2L);
+
+        User owner = User.builder()
+                .id(1L)
+                .name("user1")
+                .email("user1@email.com")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+
+        User booker = User.builder()
+                .id(3L)
+                .name("user3")
+                .email("user3@email.com")
+                .build();
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(owner));
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker));
+
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(start)
+                .end(end)
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking)));
+
+        List<BookingInfoDto> bookingInfoDtoList = bookingService.getAfter(3L, "ALL", "", 10L);
+        assertThat(bookingInfoDtoList.size(), is(1));
+
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(Collections.emptyList());
+        String cursor = new BookingCursor(start, 1L).encode();
+        bookingInfoDtoList = bookingService.getAfter(3L, "ALL", cursor, 10L);
+        Assertions.assertTrue(bookingInfoDtoList.isEmpty());
+
+        when(bookingRepository.findViews(any(), any()))
+                .thenReturn(List.of(toView(booking)));
+        bookingInfoDtoList = bookingService.getByOwnerAfter(1L, "WAITING", cursor, 10L);
+        assertThat(bookingInfoDtoList.size(), is(1));
+
+        PaginationException paginationException = Assertions.assertThrows(PaginationException.class,
+                () -> bookingService.getAfter(3L, "ALL", "not-a-cursor", 10L));
+        assertThat(paginationException.getMessage(), is("paging invalid"));
+    }
+
+    private static BookingInfoView toView(Booking booking) {
+        return new BookingInfoView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    @Test
+    void export() throws Exception {
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@email.com")
+                .build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        BookingInfoView view = new BookingInfoView(
+                1L, start, start.plusDays(1L), Status.WAITING, 1L, "item", 2L);
+
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(owner));
+        when(bookingRepository.streamViewsByOwner(1L))
+                .thenReturn(Stream.of(view));
+
+        List<BookingInfoDto> bookings = new ArrayList<>();
+        bookingService.export(1L, BookingRole.OWNER, bookings::add);
+
+        assertThat(bookings.size(), is(1));
+        assertThat(bookings.get(0).getItem().getName(), is("item"));
+        assertThat(bookings.get(0).getBooker().getId(), is(2L));
+        verify(bookingRepository, times(0)).streamViewsByBooker(any());
+
+        when(userRepository.findById(2L))
+                .thenReturn(Optional.empty());
+
+        final UserNotFoundException exception = Assertions.assertThrows(
+                UserNotFoundException.class,
+                () -> bookingService.export(2L, BookingRole.BOOKER, bookings::add)
+        );
+        assertThat(exception.getMessage(), is("user not found"));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class ApprovedIntervalsTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    void overlaps() {
+        ApprovedIntervals intervals = new ApprovedIntervals();
+        intervals.add(base, base.plusDays(2L));
+        intervals.add(base.plusDays(5L), base.plusDays(6L));
+
+        assertThat(intervals.overlaps(base.plusDays(1L), base.plusDays(3L)), is(true));
+        assertThat(intervals.overlaps(base.minusDays(1L), base.plusDays(10L)), is(true));
+        assertThat(intervals.overlaps(base.plusDays(3L), base.plusDays(4L)), is(false));
+        //touching ends are not an overlap
+        assertThat(intervals.overlaps(base.plusDays(2L), base.plusDays(5L)), is(false));
+        assertThat(intervals.overlaps(base.minusDays(1L), base), is(false));
+    }
+
+    @Test
+    void addMerges() {
+        ApprovedIntervals intervals = new ApprovedIntervals();
+        intervals.add(base, base.plusDays(1L));
+        intervals.add(base.plusDays(2L), base.plusDays(3L));
+        intervals.add(base.plusDays(4L), base.plusDays(5L));
+        assertThat(intervals.size(), is(3));
+
+        intervals.add(base.plusHours(12L), base.plusDays(4L).plusHours(1L));
+        assertThat(intervals.size(), is(1));
+        assertThat(intervals.overlaps(base.plusDays(5L).minusHours(1L), base.plusDays(6L)), is(true));
+        assertThat(intervals.overlaps(base.plusDays(5L), base.plusDays(6L)), is(false));
+    }
+}
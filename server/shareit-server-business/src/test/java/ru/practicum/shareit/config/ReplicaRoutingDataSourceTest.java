@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void routesReadOnlyToReplicas() throws SQLException {
+        DataSource primary = dataSource();
+        DataSource replica1 = dataSource();
+        DataSource replica2 = dataSource();
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2));
+
+        assertThat(routingDataSource.getConnection(), is(primary.getConnection()));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection(), is(replica1.getConnection()));
+        assertThat(routingDataSource.getConnection(), is(replica2.getConnection()));
+        assertThat(routingDataSource.getConnection(), is(replica1.getConnection()));
+    }
+
+    @Test
+    void routesReadOnlyToPrimaryWithoutReplicas() throws SQLException {
+        DataSource primary = dataSource();
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, Collections.emptyList());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(routingDataSource.getConnection(), is(primary.getConnection()));
+    }
+
+    private static DataSource dataSource() throws SQLException {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Connection connection = Mockito.mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
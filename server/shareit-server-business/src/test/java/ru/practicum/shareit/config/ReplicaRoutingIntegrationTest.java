@@ -0,0 +1,115 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.IntegrationFixtures;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingOverlapGuard;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static ru.practicum.shareit.IntegrationFixtures.waiting;
+
+//a second H2 database stands in for the replica, each side holds rows the other doesn't
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ReplicaRoutingIntegrationTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA_URL, "test", "test"));
+
+    private final UserService userService;
+
+    private final HikariDataSource primaryDataSource;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    private final IntegrationFixtures fixtures;
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingOverlapGuard bookingOverlapGuard;
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        registry.add("shareit.datasource.replicas[0].url", () -> REPLICA_URL);
+        registry.add("shareit.datasource.replicas[0].username", () -> "test");
+        registry.add("shareit.datasource.replicas[0].password", () -> "test");
+    }
+
+    //replication isn't simulated, the replica gets the schema and its own rows
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "test", "test")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        replica.update("insert into users (id, name, email) values (1000000, 'replica', 'replica@email.com')");
+    }
+
+    @Test
+    void readOnlyReadsReplicaAndWritesGoToPrimary() throws Exception {
+        assertThat(userService.get(1000000L).getEmail(), is("replica@email.com"));
+
+        new JdbcTemplate(primaryDataSource)
+                .update("insert into users (id, name, email) values (2000000, 'primary', 'primary@email.com')");
+        Assertions.assertThrows(UserNotFoundException.class, () -> userService.get(2000000L));
+
+        UserDto created = userService.create(UserDto.builder()
+                .name("written")
+                .email("written@email.com")
+                .build());
+        assertThat(new JdbcTemplate(primaryDataSource).queryForObject(
+                "select count(*) from users where id = ?", Integer.class, created.getId()), is(1));
+        assertThat(replica.queryForObject(
+                "select count(*) from users where id = ?", Integer.class, created.getId()), is(0));
+    }
+
+    @Test
+    void replicaPoolTakesPrimarySettings() {
+        HikariDataSource replicaPool = (HikariDataSource) routingDataSource.getResolvedDataSources()
+                .get(ReplicaRoutingDataSource.REPLICA + 0);
+        assertThat(replicaPool.getMaximumPoolSize(), is(primaryDataSource.getMaximumPoolSize()));
+        assertThat(replicaPool.getConnectionTimeout(), is(5000L));
+        assertThat(replicaPool.getJdbcUrl(), is(REPLICA_URL));
+        assertThat(replicaPool.isReadOnly(), is(true));
+    }
+
+    //the replica never gets the approval, the guard still has to see it
+    @Test
+    void overlapGuardLoadsFromPrimary() {
+        User owner = fixtures.user("replica-owner");
+        User booker = fixtures.user("replica-booker");
+        Item item = fixtures.item(owner);
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        Booking booking = waiting(item, booker, start, start.plusDays(1L));
+        booking.setStatus(Status.APPROVED);
+        bookingRepository.save(booking);
+
+        assertThat(bookingOverlapGuard.overlapsApproved(item.getId(), start.plusHours(1L), start.plusHours(2L)),
+                is(true));
+    }
+}
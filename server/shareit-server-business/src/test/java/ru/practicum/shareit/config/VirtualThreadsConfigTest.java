@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.common.VirtualThreadsConfig;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.verify;
+
+//shareit.threads.virtual=true on whatever JDK runs the build, below 21 Tomcat keeps its own pool
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.threads.virtual=true")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class VirtualThreadsConfigTest {
+
+    private final VirtualThreadsConfig.VirtualThreadsCustomizer virtualThreadsCustomizer;
+
+    private final ServletWebServerApplicationContext context;
+
+    private final TestRestTemplate restTemplate;
+
+    @Test
+    void servesRequestsWithVirtualThreadsEnabled() {
+        Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector()
+                .getProtocolHandler().getExecutor();
+        if (Runtime.version().feature() >= 21) {
+            assertThat(executor.getClass().getName(), startsWith("java.util.concurrent.ThreadPerTaskExecutor"));
+        } else {
+            assertThat(executor.getClass().getName(), startsWith("org.apache.tomcat.util.threads"));
+        }
+
+        assertThat(restTemplate.getForEntity("/users?from=0&size=10", String.class).getStatusCode(),
+                is(HttpStatus.OK));
+    }
+
+    @Test
+    void shutsDownItsExecutor() {
+        ExecutorService executor = Mockito.mock(ExecutorService.class);
+        new VirtualThreadsConfig.VirtualThreadsCustomizer(executor).destroy();
+        verify(executor).shutdown();
+
+        //nothing to close on a JDK without virtual threads
+        new VirtualThreadsConfig.VirtualThreadsCustomizer(null).destroy();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.IntegrationFixtures;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.IntegrationFixtures.waiting;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemBookingPointersIntegrationTest {
+
+    @Autowired
+    private final BookingService bookingService;
+
+    @Autowired
+    private final ItemService itemService;
+
+    @Autowired
+    private final ItemBookingPointers itemBookingPointers;
+
+    @Autowired
+    private final IntegrationFixtures fixtures;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Test
+    void approveAndRollForward() throws Exception {
+        User owner = fixtures.user("pointers-owner");
+        User booker = fixtures.user("pointers-booker");
+        Item item = fixtures.item(owner);
+        LocalDateTime now = LocalDateTime.now();
+        Booking past = bookingRepository.save(waiting(item, booker, now.minusDays(3L), now.minusDays(2L)));
+        Booking later = bookingRepository.save(waiting(item, booker, now.plusDays(3L), now.plusDays(4L)));
+        Booking sooner = bookingRepository.save(waiting(item, booker, now.plusDays(1L), now.plusDays(2L)));
+
+        bookingService.approve(owner.getId(), past.getId(), true);
+        bookingService.approve(owner.getId(), later.getId(), true);
+        bookingService.approve(owner.getId(), sooner.getId(), true);
+
+        ItemDto itemDto = itemService.get(owner.getId(), item.getId());
+        assertThat(itemDto.getLastBooking().getId(), is(past.getId()));
+        assertThat(itemDto.getNextBooking().getId(), is(sooner.getId()));
+
+        //time passes: the next booking is over, readers fall back until the job rolls the item forward
+        sooner = bookingRepository.findById(sooner.getId()).get();
+        sooner.setStart(now.minusDays(1L));
+        sooner.setEnd(now.minusHours(1L));
+        bookingRepository.save(sooner);
+        itemDto = itemService.get(owner.getId(), item.getId());
+        assertThat(itemDto.getLastBooking().getId(), is(sooner.getId()));
+        assertThat(itemDto.getNextBooking().getId(), is(later.getId()));
+
+        itemBookingPointers.rollForward();
+        Item rolled = itemRepository.findAllByOwner_Id(owner.getId(), null).get(0);
+        assertThat(rolled.getLastBooking().getId(), is(sooner.getId()));
+        assertThat(rolled.getNextBooking().getId(), is(later.getId()));
+        assertThat(itemRepository.findAllByNextBooking_EndLessThanEqual(LocalDateTime.now(), null).stream()
+                .noneMatch(stale -> stale.getId().equals(item.getId())), is(true));
+
+        itemDto = itemService.get(booker.getId(), item.getId());
+        assertThat(itemDto.getLastBooking(), is(nullValue()));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.time.RequestTime;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ItemBookingPointersTest {
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final RequestTime requestTime = mock(RequestTime.class);
+
+    private final ItemBookingPointers itemBookingPointers = new ItemBookingPointers(mock(ItemRepository.class),
+            mock(BookingRepository.class), transactionTemplate, requestTime);
+
+    @Test
+    void rollForwardRetriesConflictingBatch() {
+        when(requestTime.now())
+                .thenReturn(LocalDateTime.now());
+        //a full batch, a conflict on the second one, its retry and the last partial batch
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenReturn(100)
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L))
+                .thenReturn(100)
+                .thenReturn(7);
+
+        itemBookingPointers.rollForward();
+        verify(transactionTemplate, times(4)).execute(any(TransactionCallback.class));
+    }
+
+    @Test
+    void rollForwardStopsAfterRepeatedConflicts() {
+        when(requestTime.now())
+                .thenReturn(LocalDateTime.now());
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        itemBookingPointers.rollForward();
+        verify(transactionTemplate, times(3)).execute(any(TransactionCallback.class));
+    }
+}
@@ -8,9 +8,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -134,6 +136,20 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.owner", is(itemDtoUpdated.getOwner()), Long.class));
     }
 
+    @Test
+    void updateConflict() throws Exception {
+        when(itemService.update(1L, 1L, itemDtoUpdateTest))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        mvc.perform(patch("/items/1")
+                        .content(mapper.writeValueAsString(itemDtoUpdateTest))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void getItemDto() throws Exception {
         when(itemService.get(1L, 1L))
@@ -6,9 +6,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemInfoView;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @DataJpaTest
@@ -20,6 +24,9 @@ class ItemRepositoryTest {
     @Autowired
     ItemRepository itemRepository;
 
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+
     @Test
     void searchAvailableByText() {
         User owner = User.builder()
@@ -42,4 +49,54 @@ class ItemRepositoryTest {
         List<Item> items = itemRepository.searchAvailableByText("name", pageRequest);
         Assertions.assertTrue(items.get(0).getName().contains(item.getName()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findViewsByRequestIds() {
+        User owner = userRepository.save(User.builder()
+                .name("user2")
+                .email("user2@email.com")
+                .build());
+        User requestor = userRepository.save(User.builder()
+                .name("user3")
+                .email("user3@email.com")
+                .build());
+        ItemRequest first = itemRequestRepository.save(ItemRequest.builder()
+                .description("first")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest second = itemRequestRepository.save(ItemRequest.builder()
+                .description("second")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+        Item answer = itemRepository.save(Item.builder()
+                .name("answer")
+                .description("answer description")
+                .available(true)
+                .owner(owner)
+                .request(first)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("other")
+                .description("other description")
+                .available(false)
+                .owner(owner)
+                .request(second)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("unrequested")
+                .description("unrequested description")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        List<ItemInfoView> views = itemRepository.findViewsByRequestIds(List.of(first.getId()));
+        Assertions.assertEquals(1, views.size());
+        Assertions.assertEquals(answer.getId(), views.get(0).getId());
+        Assertions.assertEquals("answer", views.get(0).getName());
+        Assertions.assertEquals(first.getId(), views.get(0).getRequestId());
+
+        Assertions.assertEquals(2, itemRepository.findViewsByRequestIds(List.of(first.getId(), second.getId())).size());
+    }
+}
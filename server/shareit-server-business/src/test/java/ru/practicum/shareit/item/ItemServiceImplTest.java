@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.common.Status;
@@ -15,11 +16,15 @@ import ru.practicum.shareit.item.exception.InvalidCommentException;
 import ru.practicum.shareit.item.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.time.RequestTime;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -28,6 +33,9 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -243,6 +251,36 @@ class ItemServiceImplTest {
         assertThat(itemDto, is(notNullValue()));
     }
 
+    @Test
+    void updateRetriesOnConflict() throws Exception {
+        User owner = User.builder()
+                .id(1L)
+                .name("name")
+                .email("user@email.com")
+                .build();
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(owner));
+
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build();
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+
+        //the first attempt loses the version check against an approval, the second one goes through
+        when(itemRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        ItemDto itemDto = itemService.update(1L, 1L, ItemDto.builder().name("nameUpdated").build());
+        assertThat(itemDto.getName(), is("nameUpdated"));
+        verify(itemRepository, times(2)).findById(1L);
+    }
+
     @Test
     void getItem() throws Exception {
         User user = User.builder()
@@ -316,20 +354,33 @@ class ItemServiceImplTest {
         itemDto = itemService.get(1L, 1L);
         assertThat(itemDto, is(notNullValue()));
 
-        when(bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.empty());
         itemDto = itemService.get(2L, 1L);
         assertThat(itemDto.getLastBooking(), is(nullValue()));
         assertThat(itemDto.getNextBooking(), is(nullValue()));
 
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
+        itemDto = itemService.get(2L, 1L);
+        assertThat(itemDto.getLastBooking().getId(), is(1L));
+        assertThat(itemDto.getNextBooking().getId(), is(2L));
+
+        //the next booking is over but not rolled forward yet, the bookings table is read instead
+        Booking endedBooking = Booking.builder()
+                .id(3L)
+                .start(created.minusDays(2L))
+                .end(created.minusDays(1L))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+        item.setNextBooking(endedBooking);
         when(bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.of(lastBooking));
+                .thenReturn(Optional.of(endedBooking));
         when(bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.of(nextBooking));
+                .thenReturn(Optional.empty());
         itemDto = itemService.get(2L, 1L);
-        assertThat(itemDto, is(notNullValue()));
+        assertThat(itemDto.getLastBooking().getId(), is(3L));
+        assertThat(itemDto.getNextBooking(), is(nullValue()));
     }
 
     @Test
@@ -379,7 +430,7 @@ class ItemServiceImplTest {
                 .build();
         List<Comment> commentList = List.of(comment);
 
-        when(commentRepository.findAllByItem_Id(1L))
+        when(commentRepository.findAllByItem_IdIn(any()))
                 .thenReturn(commentList);
 
         Booking lastBooking = Booking.builder()
@@ -400,21 +451,33 @@ class ItemServiceImplTest {
                 .status(Status.APPROVED)
                 .build();
 
-        when(bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.of(lastBooking));
-        when(bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.of(nextBooking));
+        item.setLastBooking(lastBooking);
+        item.setNextBooking(nextBooking);
 
         itemDtos = itemService.get(2L, 0L, 10L);
         assertThat(itemDtos, is(notNullValue()));
+        assertThat(itemDtos.get(0).getComments().size(), is(1));
+        assertThat(itemDtos.get(0).getLastBooking().getId(), is(1L));
+        assertThat(itemDtos.get(0).getNextBooking().getId(), is(2L));
+
+        //stale pointers fall back to the per-item window queries
+        item.setNextBooking(lastBooking);
+        when(bookingRepository.findLastApprovedByItemIds(any(), any()))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextApprovedByItemIds(any(), any()))
+                .thenReturn(Collections.emptyList());
 
-        when(bookingRepository.findTop1BookingByItem_IdAndEndIsBeforeAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.empty());
-        when(bookingRepository.findTop1BookingByItem_IdAndEndIsAfterAndStatusIs(any(), any(), any(), any()))
-                .thenReturn(Optional.empty());
+        itemDtos = itemService.get(2L, 0L, 10L);
+        assertThat(itemDtos.get(0).getLastBooking().getId(), is(1L));
+        assertThat(itemDtos.get(0).getNextBooking(), is(nullValue()));
+
+        item.setLastBooking(null);
+        item.setNextBooking(null);
 
         itemDtos = itemService.get(2L, 0L, 10L);
         assertThat(itemDtos, is(notNullValue()));
+        assertThat(itemDtos.get(0).getLastBooking(), is(nullValue()));
+        assertThat(itemDtos.get(0).getNextBooking(), is(nullValue()));
 
         Item item2 = Item.builder()
                 .id(2L)
@@ -425,11 +488,10 @@ class ItemServiceImplTest {
                 .build();
 
         items.add(item2);
-        when(commentRepository.findAllByItem_Id(2L))
-                .thenReturn(Collections.emptyList());
 
         itemDtos = itemService.get(2L, 0L, 10L);
         assertThat(itemDtos, is(notNullValue()));
+        assertThat(itemDtos.get(1).getComments(), is(empty()));
     }
 
     @Test
@@ -526,6 +588,53 @@ class ItemServiceImplTest {
         assertThat(commentDto, is(notNullValue()));
     }
 
+    @Test
+    void commentEligibilityUsesUnroundedClock() throws Exception {
+        Clock clock = Clock.fixed(Instant.parse("2022-08-01T12:00:00.700Z"), ZoneOffset.UTC);
+        RequestTime requestTime = new RequestTime(clock);
+        ItemServiceImpl service = new ItemServiceImpl(userRepository, itemRepository, bookingRepository,
+                commentRepository, null, null, requestTime, clock);
+        User booker = User.builder()
+                .id(3L)
+                .name("user3")
+                .email("user3@email.com")
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(booker)
+                .build();
+        when(itemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+        when(userRepository.findById(3L))
+                .thenReturn(Optional.of(booker));
+        //ended 12:00:00.500, after the request's rounded 12:00:00 but before the actual moment
+        LocalDateTime now = LocalDateTime.now(clock);
+        Booking booking = Booking.builder()
+                .id(1L)
+                .start(now.minusHours(1L))
+                .end(now.minusNanos(200_000_000L))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+        when(bookingRepository.findTop1BookingByItem_IdAndBooker_IdAndEndIsBeforeAndStatusIs(
+                eq(1L), eq(3L), eq(now), eq(Status.APPROVED), any())
+        ).thenReturn(Optional.of(booking));
+        when(commentRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        requestTime.open();
+        try {
+            CommentDto commentDto = service.comment(3L, 1L, CommentDto.builder().text("comment").build());
+            assertThat(commentDto.getCreated(), is(now));
+        } finally {
+            requestTime.close();
+        }
+    }
+
     @Test
     void throwInvalidCommentException() {
         User owner = User.builder()
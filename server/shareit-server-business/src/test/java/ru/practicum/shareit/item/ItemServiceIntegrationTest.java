@@ -16,12 +16,16 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+//expects ids from 1, so it starts from a context other integration tests haven't written to
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemServiceIntegrationTest {
 
@@ -80,7 +84,7 @@ class ItemServiceIntegrationTest {
         itemRepository.save(item);
         bookingRepository.save(lastBooking);
         bookingRepository.save(nextBooking);
-
+        itemRepository.rebuildBookingPointers(created);
     }
 
     @AfterEach
@@ -112,4 +116,13 @@ class ItemServiceIntegrationTest {
         assertThat(itemDto.getId(), is(1L));
         assertThat(itemDto.getLastBooking().getId(), is(1L));
     }
+
+    @DirtiesContext
+    @Test
+    void getOwnerItems() throws Exception {
+        List<ItemDto> itemDtos = itemService.get(1L, 0L, 10L);
+        assertThat(itemDtos.size(), is(1));
+        assertThat(itemDtos.get(0).getLastBooking().getId(), is(1L));
+        assertThat(itemDtos.get(0).getNextBooking(), is(nullValue()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class InMemoryItemSearchEngineTest {
+
+    private ItemRepository itemRepository;
+
+    private InMemoryItemSearchEngine searchEngine;
+
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        items = List.of(
+                Item.builder().id(1L).name("Дрель").description("Аккумуляторная дрель").available(true).build(),
+                Item.builder().id(2L).name("Аккумулятор").description("Запасной").available(true).build(),
+                Item.builder().id(3L).name("Отвертка").description("Аккумуляторная отвертка").available(false).build(),
+                Item.builder().id(4L).name("Клей").description("Клей Момент").available(true).build()
+        );
+        itemRepository = Mockito.mock(ItemRepository.class);
+        when(itemRepository.findAll()).thenReturn(items);
+        when(itemRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Long> idList = new ArrayList<>();
+            ids.forEach(idList::add);
+            return items.stream().filter(item -> idList.contains(item.getId())).collect(Collectors.toList());
+        });
+        searchEngine = new InMemoryItemSearchEngine(itemRepository);
+        searchEngine.rebuild();
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstAndSkipsUnavailable() {
+        List<Item> found = searchEngine.search("аккУМУлятор", PageRequest.of(0, 10));
+        assertThat(found.stream().map(Item::getId).collect(Collectors.toList()), contains(2L, 1L));
+    }
+
+    @Test
+    void searchHonoursPaging() {
+        List<Item> found = searchEngine.search("аккумулятор", PageRequest.of(1, 1));
+        assertThat(found.stream().map(Item::getId).collect(Collectors.toList()), contains(1L));
+    }
+
+    @Test
+    void indexReplacesPreviousVersion() {
+        searchEngine.index(Item.builder().id(4L).name("Клей").description("Суперклей").available(true).build());
+        assertThat(searchEngine.search("Момент", PageRequest.of(0, 10)), empty());
+        assertThat(searchEngine.search("супер", PageRequest.of(0, 10)).size(), is(1));
+    }
+
+    @Test
+    void indexWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.index(Item.builder().id(4L).name("Клей").description("Суперклей").available(true).build());
+            //not visible while the transaction is open
+            assertThat(searchEngine.search("супер", PageRequest.of(0, 10)), empty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(searchEngine.search("супер", PageRequest.of(0, 10)).size(), is(1));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void indexIgnoresRolledBackChange() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            searchEngine.index(Item.builder().id(4L).name("Клей").description("Суперклей").available(true).build());
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(searchEngine.search("супер", PageRequest.of(0, 10)), empty());
+        assertThat(searchEngine.search("Момент", PageRequest.of(0, 10)).size(), is(1));
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class MetricsIntegrationTest {
+
+    @Autowired
+    private final MockMvc mvc;
+
+    @Autowired
+    private final UserService userService;
+
+    @Autowired
+    private final BookingService bookingService;
+
+    @Autowired
+    private final MeterRegistry meterRegistry;
+
+    @Test
+    void statementsAndServiceTimers() throws Exception {
+        UserDto user = userService.create(UserDto.builder().name("metrics").email("metrics@mail.com").build());
+
+        mvc.perform(get("/users/{userId}", user.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.find("shareit.hibernate.statements")
+                .tags("method", "GET", "uri", "/users/{userId}")
+                .summary().count(), greaterThanOrEqualTo(1L));
+        assertThat(meterRegistry.find("shareit.service")
+                .tags("class", "ru.practicum.shareit.user.UserServiceImpl", "method", "get")
+                .timer().count(), greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    void listingTimer() throws Exception {
+        UserDto user = userService.create(UserDto.builder().name("booker").email("booker@mail.com").build());
+
+        bookingService.get(user.getId(), "ALL", 0L, 10L);
+        bookingService.getAfter(user.getId(), "WAITING", "", 10L);
+
+        assertThat(meterRegistry.find("shareit.booking.listing")
+                .tags("role", "BOOKER", "state", "ALL", "paging", "offset")
+                .timer(), notNullValue());
+        assertThat(meterRegistry.find("shareit.booking.listing")
+                .tags("state", "WAITING", "paging", "keyset")
+                .timer().count(), greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    void secondLevelCacheCounters() throws Exception {
+        UserDto user = userService.create(UserDto.builder().name("cached").email("cached-metrics@mail.com").build());
+
+        //the first read may come from the cache already (put on insert), the second one surely does
+        userService.get(user.getId());
+        userService.get(user.getId());
+
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("result", "hit", "region", "users")
+                .functionCounter().count(), greaterThanOrEqualTo(1.0));
+    }
+}
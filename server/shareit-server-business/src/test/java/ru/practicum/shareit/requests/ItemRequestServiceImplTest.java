@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemInfoView;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.exception.ItemRequestNotFoundException;
 import ru.practicum.shareit.requests.model.ItemRequest;
@@ -142,9 +143,9 @@ class ItemRequestServiceImplTest {
                 .email("user1@email.com")
                 .build();
 
-        List<Item> items = Collections.emptyList();
+        List<ItemInfoView> items = Collections.emptyList();
 
-        when(itemRepository.findAllByRequest_IdIn(List.of(1L)))
+        when(itemRepository.findViewsByRequestIds(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.get(2L);
@@ -160,14 +161,16 @@ class ItemRequestServiceImplTest {
                 .request(request)
                 .build();
 
-        items = List.of(item);
+        items = List.of(new ItemInfoView(
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), request.getId()));
 
-        when(itemRepository.findAllByRequest_IdIn(List.of(1L)))
+        when(itemRepository.findViewsByRequestIds(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.get(2L);
 
         assertThat(itemRequestDtos, is(notNullValue()));
+        assertThat(itemRequestDtos.get(0).getItems().get(0).getRequestId(), is(1L));
     }
 
     @Test
@@ -207,8 +210,8 @@ class ItemRequestServiceImplTest {
         when(itemRequestRepository.findAllByRequestor_IdIsNot(any(), any()))
                 .thenReturn(itemRequests);
 
-        List<Item> items = Collections.emptyList();
-        when(itemRepository.findAllByRequest_IdIn(List.of(1L)))
+        List<ItemInfoView> items = Collections.emptyList();
+        when(itemRepository.findViewsByRequestIds(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.get(1L, 0L, 10L);
@@ -222,13 +225,15 @@ class ItemRequestServiceImplTest {
                 .owner(owner)
                 .request(request)
                 .build();
-        items = List.of(item);
+        items = List.of(new ItemInfoView(
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), request.getId()));
 
-        when(itemRepository.findAllByRequest_IdIn(List.of(1L)))
+        when(itemRepository.findViewsByRequestIds(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDtos = itemRequestService.get(1L, 0L, 10L);
         assertThat(itemRequestDtos, is(notNullValue()));
+        assertThat(itemRequestDtos.get(0).getItems().get(0).getId(), is(1L));
     }
 
     @Test
@@ -276,8 +281,8 @@ class ItemRequestServiceImplTest {
         when(itemRequestRepository.findItemRequestById(request.getId()))
                 .thenReturn(Optional.of(request));
 
-        List<Item> items = Collections.emptyList();
-        when(itemRepository.findAllByRequest_Id(1L))
+        List<ItemInfoView> items = Collections.emptyList();
+        when(itemRepository.findViewsByRequestIds(List.of(1L)))
                 .thenReturn(items);
 
         ItemRequestDto itemRequestDto = itemRequestService.get(1L, 1L);
@@ -291,14 +296,16 @@ class ItemRequestServiceImplTest {
                 .owner(owner)
                 .request(request)
                 .build();
-        items = List.of(item);
+        items = List.of(new ItemInfoView(
+                item.getId(), item.getName(), item.getDescription(), item.getAvailable(), request.getId()));
 
-        when(itemRepository.findAllByRequest_Id(1L))
+        when(itemRepository.findViewsByRequestIds(List.of(1L)))
                 .thenReturn(items);
 
         itemRequestDto = itemRequestService.get(1L, 1L);
 
         assertThat(itemRequestDto, is(notNullValue()));
+        assertThat(itemRequestDto.getItems().size(), is(1));
     }
 
     @Test
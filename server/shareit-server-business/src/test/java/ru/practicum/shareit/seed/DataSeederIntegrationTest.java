@@ -0,0 +1,71 @@
+package ru.practicum.shareit.seed;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit.seed.enabled=true",
+        "shareit.seed.users=50",
+        "shareit.seed.items-per-user=2",
+        "shareit.seed.requests-per-user=0.2",
+        "shareit.seed.bookings=500",
+        "shareit.seed.chunk-size=64"
+})
+@DirtiesContext
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class DataSeederIntegrationTest {
+
+    @Autowired
+    private final UserRepository userRepository;
+
+    @Autowired
+    private final ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    private final BookingRepository bookingRepository;
+
+    @Autowired
+    private final CommentRepository commentRepository;
+
+    @Autowired
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @Transactional(readOnly = true)
+    void seed() {
+        //the seed ran at startup with pooled sequence ids everywhere, so its inserts went out in jdbc batches
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(statistics.getEntityInsertCount(), greaterThan(660L));
+        assertThat(statistics.getPrepareStatementCount(), lessThan(statistics.getEntityInsertCount() / 10));
+
+        assertThat(userRepository.count(), is(50L));
+        assertThat(itemRequestRepository.count(), is(10L));
+        assertThat(itemRepository.count(), is(100L));
+        assertThat(bookingRepository.count(), is(500L));
+        assertThat(commentRepository.count(), greaterThan(0L));
+        assertThat(bookingRepository.findAll().stream()
+                .noneMatch(booking -> booking.getBooker().getId().equals(booking.getItem().getOwner().getId())),
+                is(true));
+    }
+}
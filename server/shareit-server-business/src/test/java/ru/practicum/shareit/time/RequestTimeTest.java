@@ -0,0 +1,71 @@
+package ru.practicum.shareit.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class RequestTimeTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T12:00:00.250Z");
+
+    @Test
+    void snapshotIsStableWithinRequest() {
+        MutableClock clock = new MutableClock(START);
+        RequestTime requestTime = new RequestTime(clock);
+
+        requestTime.open();
+        try {
+            LocalDateTime first = requestTime.now();
+            clock.instant = START.plusSeconds(5L);
+            assertThat(requestTime.now(), is(first));
+            assertThat(first, is(LocalDateTime.of(2024, 1, 1, 12, 0, 0)));
+        } finally {
+            requestTime.close();
+        }
+
+        assertThat(requestTime.now(), is(LocalDateTime.of(2024, 1, 1, 12, 0, 5)));
+    }
+
+    @Test
+    void bucketsToTheSecondOutsideRequest() {
+        MutableClock clock = new MutableClock(START);
+        RequestTime requestTime = new RequestTime(clock);
+
+        LocalDateTime first = requestTime.now();
+        clock.instant = START.plusMillis(700L);
+        assertThat(requestTime.now(), is(first));
+        clock.instant = START.plusMillis(800L);
+        assertThat(requestTime.now(), is(first.plusSeconds(1L)));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
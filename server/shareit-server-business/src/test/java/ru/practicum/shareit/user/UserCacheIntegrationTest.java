@@ -0,0 +1,46 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserCacheIntegrationTest {
+
+    private final UserService userService;
+
+    private final UserRepository userRepository;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findByIdIsServedFromSecondLevelCacheAndEvictedOnDelete() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UserDto userDto = userService.create(UserDto.builder()
+                .name("cached")
+                .email("cached@email.com")
+                .build());
+
+        statistics.clear();
+        userService.get(userDto.getId());
+        userService.get(userDto.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount(), greaterThan(0L));
+
+        userService.update(userDto.getId(), UserDto.builder().name("renamed").build());
+        assertThat(userService.get(userDto.getId()).getName(), is("renamed"));
+
+        userService.delete(userDto.getId());
+        assertThat(userRepository.findById(userDto.getId()).isPresent(), is(false));
+    }
+}
@@ -13,11 +13,15 @@ import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -125,14 +129,49 @@ class UserControllerTest {
 
     @Test
     void getAll() throws Exception {
-        when(mockUserService.get())
+        streamUsers(userDtoCreated, userDtoUpdated);
+
+        mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[1].id", is(userDtoUpdated.getId()), Long.class))
+                .andExpect(jsonPath("$[1].name", is(userDtoUpdated.getName())))
+                .andExpect(jsonPath("$[1].email", is(userDtoUpdated.getEmail())));
+    }
+
+    @Test
+    void getAllNdjson() throws Exception {
+        streamUsers(userDtoCreated, userDtoUpdated);
+
+        mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDtoCreated) + "\n" +
+                        mapper.writeValueAsString(userDtoUpdated) + "\n"));
+    }
+
+    @Test
+    void getPage() throws Exception {
+        when(mockUserService.get(0L, 10L))
                 .thenReturn(List.of(userDtoUpdated));
 
         mvc.perform(get("/users")
+                        .param("from", "0")
+                        .param("size", "10")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id", is(userDtoUpdated.getId()), Long.class))
-                .andExpect(jsonPath("$[0].name", is(userDtoUpdated.getName())))
                 .andExpect(jsonPath("$[0].email", is(userDtoUpdated.getEmail())));
     }
-}
\ No newline at end of file
+
+    private void streamUsers(UserDto... userDtos) {
+        doAnswer(invocation -> {
+            Consumer<UserDto> sink = invocation.getArgument(0);
+            for (UserDto userDto : userDtos) sink.accept(userDto);
+            return null;
+        }).when(mockUserService).stream(any());
+    }
+}
@@ -6,12 +6,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.common.PaginationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.exception.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -127,7 +130,7 @@ class UserServiceImplTest {
     }
 
     @Test
-    void getAll() {
+    void getPage() throws Exception {
 
         List<User> users = List.of(User.builder()
                 .id(1L)
@@ -135,11 +138,41 @@ class UserServiceImplTest {
                 .email("user@email.com")
                 .build());
 
-        when(userRepository.findAll())
+        when(userRepository.findAllBy(any()))
                 .thenReturn(users);
 
-        List<UserDto> userDtos = userService.get();
+        List<UserDto> userDtos = userService.get(0L, 10L);
 
-        assertThat(userDtos, is(notNullValue()));
+        assertThat(userDtos.size(), is(1));
+        assertThat(userDtos.get(0).getId(), is(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void throwPaginationException() {
+        final PaginationException exception = Assertions.assertThrows(
+                PaginationException.class,
+                () -> userService.get(0L, 0L)
+        );
+
+        assertThat(exception.getMessage(), is("paging invalid"));
+    }
+
+    @Test
+    void stream() {
+
+        User user = User.builder()
+                .id(1L)
+                .name("name")
+                .email("user@email.com")
+                .build();
+
+        when(userRepository.streamAllBy())
+                .thenReturn(Stream.of(user));
+
+        List<UserDto> userDtos = new ArrayList<>();
+        userService.stream(userDtos::add);
+
+        assertThat(userDtos.size(), is(1));
+        assertThat(userDtos.get(0).getEmail(), is("user@email.com"));
+    }
+}
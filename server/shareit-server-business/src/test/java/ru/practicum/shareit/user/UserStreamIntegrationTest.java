@@ -0,0 +1,63 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserStreamIntegrationTest {
+
+    private final UserService userService;
+
+    private final EntityManager entityManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @DirtiesContext
+    @Test
+    void streamKeepsPersistenceContextFlatAndPagesFollowIds() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(userService.create(UserDto.builder()
+                    .name("streamed" + i)
+                    .email("streamed" + i + "@email.com")
+                    .build()).getId());
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Long> streamed = new ArrayList<>();
+        int[] managed = {0};
+        userService.stream(user -> {
+            streamed.add(user.getId());
+            //the sink runs inside the streaming transaction, at most the current user is managed
+            managed[0] = Math.max(managed[0], entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+        });
+
+        assertThat(streamed, is(ids));
+        assertThat(managed[0], lessThanOrEqualTo(1));
+        assertThat(statistics.getSecondLevelCachePutCount(), is(0L));
+
+        List<Long> page = userService.get(10L, 10L).stream()
+                .map(UserDto::getId)
+                .collect(Collectors.toList());
+        assertThat(page, is(ids.subList(10, 20)));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.booking.query.BookingCursor;
+import ru.practicum.shareit.booking.query.BookingRole;
+import ru.practicum.shareit.booking.query.BookingSpecifications;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//role/state/cursor Specification -> criteria query -> rows, as BookingServiceImpl.fetch runs it,
+//against the server on the H2 "ci" profile filled by DataSeeder (1000 users, 10000 bookings)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingSpecificationBenchmark {
+
+    //seeded users book and own items alike
+    private static final long USER_ID = 7L;
+
+    private static final PageRequest OFFSET_PAGE = PageRequest.of(1, 20, Sort.by(Sort.Direction.DESC, "start"));
+
+    private static final PageRequest KEYSET_PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+    @Param({"ALL", "CURRENT", "WAITING"})
+    private String state;
+
+    private ConfigurableApplicationContext context;
+
+    private BookingRepository bookingRepository;
+
+    private TransactionTemplate readOnly;
+
+    private LocalDateTime now;
+
+    private BookingCursor ownerCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //per-transaction and per-session log lines would be measured along with the query
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("ci")
+                .run("--shareit.seed.enabled=true",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN");
+        bookingRepository = context.getBean(BookingRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        //the second keyset page starts after the last booking of the first one
+        List<BookingInfoView> firstPage = readOnly.execute(status -> bookingRepository.findViews(
+                specification(BookingRole.OWNER, null), KEYSET_PAGE));
+        ownerCursor = firstPage.isEmpty() ? null : new BookingCursor(firstPage.get(firstPage.size() - 1).getStart(),
+                firstPage.get(firstPage.size() - 1).getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingInfoView> forBooker() {
+        return readOnly.execute(status -> bookingRepository.findViews(
+                specification(BookingRole.BOOKER, null), OFFSET_PAGE));
+    }
+
+    @Benchmark
+    public List<BookingInfoView> forOwnerAfterCursor() {
+        return readOnly.execute(status -> bookingRepository.findViews(
+                specification(BookingRole.OWNER, ownerCursor), KEYSET_PAGE));
+    }
+
+    private Specification<Booking> specification(BookingRole role, BookingCursor cursor) {
+        return Specification.where(BookingSpecifications.ofRole(role, USER_ID))
+                .and(BookingSpecifications.inState(ru.practicum.shareit.common.State.valueOf(state), now))
+                .and(BookingSpecifications.after(cursor));
+    }
+}
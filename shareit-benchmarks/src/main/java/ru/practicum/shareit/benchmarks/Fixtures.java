@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmarks;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.common.Status;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.projection.ItemInfoView;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+//entities as the service layer sees them after loading, shared by the benchmarks
+final class Fixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("user" + id)
+                .email("user" + id + "@email.com")
+                .build();
+    }
+
+    static ItemRequest request(long id, User requestor) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("request description " + id)
+                .requestor(requestor)
+                .created(NOW.minusHours(id))
+                .build();
+    }
+
+    static Item item(long id, User owner, ItemRequest request) {
+        return Item.builder()
+                .id(id)
+                .name("item" + id)
+                .description("item description " + id)
+                .available(true)
+                .owner(owner)
+                .request(request)
+                .build();
+    }
+
+    static ItemInfoView itemView(Item item) {
+        return new ItemInfoView(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequest().getId());
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(NOW.plusDays(id))
+                .end(NOW.plusDays(id + 1))
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .build();
+    }
+
+    static BookingInfoView bookingView(Booking booking) {
+        return new BookingInfoView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getBooker().getId());
+    }
+
+    static Comment comment(long id, Item item, User author) {
+        return Comment.builder()
+                .id(id)
+                .text("comment " + id)
+                .item(item)
+                .author(author)
+                .created(NOW)
+                .build();
+    }
+
+    //repository stand-in answering by method name, cheaper and more predictable than a mocking library
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (!answers.containsKey(method.getName())) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return answers.get(method.getName());
+        });
+    }
+}
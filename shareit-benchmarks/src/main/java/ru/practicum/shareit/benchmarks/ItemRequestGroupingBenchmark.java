@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.common.PaginationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.projection.ItemInfoView;
+import ru.practicum.shareit.requests.ItemRequestRepository;
+import ru.practicum.shareit.requests.ItemRequestService;
+import ru.practicum.shareit.requests.ItemRequestServiceImpl;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.exception.UserNotFoundException;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//attaching answered items to requests in ItemRequestServiceImpl, repositories answer from memory
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemRequestGroupingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int requestCount;
+
+    @Param({"3"})
+    private int itemsPerRequest;
+
+    private ItemRequestService itemRequestService;
+
+    @Setup
+    public void setUp() {
+        User requestor = Fixtures.user(1L);
+        User owner = Fixtures.user(2L);
+        List<ItemRequest> requests = new ArrayList<>();
+        List<ItemInfoView> items = new ArrayList<>();
+        long itemId = 1L;
+        for (long requestId = 1L; requestId <= requestCount; requestId++) {
+            ItemRequest request = Fixtures.request(requestId, requestor);
+            requests.add(request);
+            for (int i = 0; i < itemsPerRequest; i++) {
+                items.add(Fixtures.itemView(Fixtures.item(itemId++, owner, request)));
+            }
+        }
+        itemRequestService = new ItemRequestServiceImpl(
+                Fixtures.repository(ItemRequestRepository.class, Map.of(
+                        "findAllByRequestor_IdOrderByCreatedDesc", requests,
+                        "findAllByRequestor_IdIsNot", requests)),
+                Fixtures.repository(UserRepository.class, Map.of("findById", Optional.of(requestor))),
+                Fixtures.repository(ItemRepository.class, Map.of("findViewsByRequestIds", items)),
+                Clock.systemDefaultZone());
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getOwn() throws UserNotFoundException {
+        return itemRequestService.get(1L);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getOthers() throws UserNotFoundException, PaginationException {
+        return itemRequestService.get(2L, 0L, (long) requestCount);
+    }
+}
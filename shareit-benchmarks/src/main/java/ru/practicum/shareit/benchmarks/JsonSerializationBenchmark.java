@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//response bodies of /bookings and /items pages, written with an ObjectMapper set up like Spring Boot's
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<BookingInfoDto> bookings;
+    private List<ItemDto> items;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        User owner = Fixtures.user(1L);
+        User booker = Fixtures.user(2L);
+        bookings = new ArrayList<>();
+        items = new ArrayList<>();
+        for (long id = 1L; id <= pageSize; id++) {
+            Item item = Fixtures.item(id, owner, null);
+            items.add(ItemMapper.toItemDto(item));
+            bookings.add(BookingMapper.toBookingInfoDto(Fixtures.booking(id, item, booker)));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeBookingInfoDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] writeItemDtoList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
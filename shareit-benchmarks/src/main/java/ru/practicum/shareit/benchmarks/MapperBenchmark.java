@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.dto.BookingInfoDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.projection.BookingInfoView;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.mapper.ItemRequestMapper;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Booking booking;
+    private BookingInfoView bookingView;
+    private Item item;
+    private Comment comment;
+    private ItemRequest request;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(1L);
+        User booker = Fixtures.user(2L);
+        request = Fixtures.request(1L, booker);
+        item = Fixtures.item(1L, owner, request);
+        booking = Fixtures.booking(1L, item, booker);
+        bookingView = Fixtures.bookingView(booking);
+        comment = Fixtures.comment(1L, item, booker);
+    }
+
+    @Benchmark
+    public BookingInfoDto bookingToBookingInfoDto() {
+        return BookingMapper.toBookingInfoDto(booking);
+    }
+
+    @Benchmark
+    public BookingInfoDto bookingViewToBookingInfoDto() {
+        return BookingMapper.toBookingInfoDto(bookingView);
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public CommentDto commentToCommentDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDto requestToItemRequestDto() {
+        return ItemRequestMapper.toItemRequestDto(request);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.common.PaginationException;
+import ru.practicum.shareit.utils.PageRequestManager;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageRequestManagerBenchmark {
+
+    private int from = 20;
+    private int size = 10;
+
+    @Benchmark
+    public PageRequest formBySingleProperty() throws PaginationException {
+        return PageRequestManager.form(from, size, Sort.Direction.DESC, "start");
+    }
+
+    @Benchmark
+    public PageRequest formByKeysetProperties() throws PaginationException {
+        return PageRequestManager.form(0, size, Sort.Direction.DESC, "start", "id");
+    }
+}
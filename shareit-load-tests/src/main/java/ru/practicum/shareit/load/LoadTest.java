@@ -0,0 +1,114 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//closed-loop load against the gateway: load.concurrency workers send the weighted Scenario mix
+//as random users 1..load.users (ids DataSeeder hands out), then p50/p99 and throughput per endpoint are printed
+//-Dload.url=http://localhost:8080 -Dload.users=1000 -Dload.concurrency=32 -Dload.warmup=10 -Dload.duration=60
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = System.getProperty("load.url", "http://localhost:8080");
+        int users = Integer.getInteger("load.users", 1000);
+        int concurrency = Integer.getInteger("load.concurrency", 32);
+        long warmupSeconds = Long.getLong("load.warmup", 10L);
+        long durationSeconds = Long.getLong("load.duration", 60L);
+
+        List<Scenario> scenarios = Scenario.defaultMix();
+        int totalWeight = scenarios.stream().mapToInt(Scenario::getWeight).sum();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    Scenario scenario = pick(scenarios, totalWeight, random);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + scenario.path(random)))
+                            .header("X-Sharer-User-Id", String.valueOf(1 + random.nextInt(users)))
+                            .timeout(Duration.ofSeconds(30))
+                            .GET()
+                            .build();
+                    send(client, request, scenario);
+                }
+            });
+        }
+
+        System.out.printf("warming up for %ds against %s with %d workers%n", warmupSeconds, baseUrl, concurrency);
+        TimeUnit.NANOSECONDS.sleep(Math.max(warmupEnd - System.nanoTime(), 0));
+        scenarios.forEach(scenario -> {
+            scenario.interval();
+            scenario.resetErrors();
+        });
+        System.out.printf("measuring for %ds%n", durationSeconds);
+        workers.shutdown();
+        workers.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS);
+
+        report(scenarios, durationSeconds);
+    }
+
+    private static void send(HttpClient client, HttpRequest request, Scenario scenario) {
+        long start = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        scenario.record(System.nanoTime() - start, failed);
+    }
+
+    private static Scenario pick(List<Scenario> scenarios, int totalWeight, Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            roll -= scenario.getWeight();
+            if (roll < 0) return scenario;
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private static void report(List<Scenario> scenarios, long durationSeconds) {
+        System.out.printf("%-22s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Scenario scenario : scenarios) {
+            Histogram histogram = scenario.interval();
+            System.out.printf("%-22s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    scenario.getName(),
+                    histogram.getTotalCount(),
+                    scenario.resetErrors(),
+                    (double) histogram.getTotalCount() / durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getMaxValue()));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
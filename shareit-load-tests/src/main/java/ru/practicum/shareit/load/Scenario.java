@@ -0,0 +1,73 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import ru.practicum.shareit.common.SeedVocabulary;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//one endpoint of the mix: how often it is hit, how its path is built and what it measured
+final class Scenario {
+
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    private final String name;
+    private final int weight;
+    private final Function<Random, String> path;
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+
+    Scenario(String name, int weight, Function<Random, String> path) {
+        this.name = name;
+        this.weight = weight;
+        this.path = path;
+    }
+
+    static List<Scenario> defaultMix() {
+        return List.of(
+                new Scenario("GET /items/search", 30,
+                        random -> "/items/search?text=" + pick(random, SeedVocabulary.SEARCH_WORDS) + "&from=0&size=20"),
+                new Scenario("GET /bookings", 25,
+                        random -> "/bookings?state=" + pick(random, STATES) + "&from=0&size=20"),
+                new Scenario("GET /bookings/owner", 15,
+                        random -> "/bookings/owner?state=" + pick(random, STATES) + "&from=0&size=20"),
+                new Scenario("GET /items", 20,
+                        random -> "/items?from=0&size=20"),
+                new Scenario("GET /requests/all", 10,
+                        random -> "/requests/all?from=0&size=20")
+        );
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    String path(Random random) {
+        return path.apply(random);
+    }
+
+    void record(long nanos, boolean failed) {
+        recorder.recordValue(nanos);
+        if (failed) errors.increment();
+    }
+
+    //histogram since the previous call, the call at the end of warmup throws the warmup away
+    Histogram interval() {
+        return recorder.getIntervalHistogram();
+    }
+
+    long resetErrors() {
+        return errors.sumThenReset();
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}